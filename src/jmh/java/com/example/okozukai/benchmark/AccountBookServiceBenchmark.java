@@ -0,0 +1,152 @@
+package com.example.okozukai.benchmark;
+
+import com.example.okozukai.OkozukaiApplication;
+import com.example.okozukai.config.CacheConfig;
+import com.example.okozukai.dto.LedgerPage;
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.form.LedgerCursorForm;
+import com.example.okozukai.repository.AccountRepository;
+import com.example.okozukai.repository.LedgerSum;
+import com.example.okozukai.service.AccountBookService;
+import com.example.okozukai.service.LedgerTotalService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AccountBookServiceBenchmark {
+
+    private static final String SEED_SQL = """
+            INSERT INTO ACCOUNT(item_date, item, income, expense, note)
+            SELECT DATEADD('DAY', -MOD(X, 3650), DATE '2022-12-31'),
+                   CASE MOD(X, 6) WHEN 0 THEN 'T-Shirts' WHEN 1 THEN 'iPhone' WHEN 2 THEN 'Green Curry'
+                                  WHEN 3 THEN 'MacBook' WHEN 4 THEN 'Sushi' ELSE 'iPad' END,
+                   CASE WHEN MOD(X, 4) = 0 THEN MOD(X * 37, 200000) ELSE 0 END,
+                   CASE WHEN MOD(X, 4) = 0 THEN 0 ELSE MOD(X * 53, 150000) END,
+                   'benchmark'
+            FROM SYSTEM_RANGE(1, ?)
+            """;
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+
+    AccountBookService accountBookService;
+
+    AccountRepository accountRepository;
+
+    CacheManager cacheManager;
+
+    EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(OkozukaiApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + rows + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        context.getBean(JdbcTemplate.class).update(SEED_SQL, rows);
+        context.getBean(LedgerTotalService.class).reconcile();
+
+        accountBookService = context.getBean(AccountBookService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        cacheManager = context.getBean(CacheManager.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Account> getFindAll() {
+
+        return accountBookService.getFindAll();
+    }
+
+    @Benchmark
+    public long getTotalPrice() {
+
+        cacheManager.getCache(CacheConfig.NET_WORTH).clear();
+        return accountBookService.getTotalPrice();
+    }
+
+    @Benchmark
+    public LedgerPage getLedgerPage() {
+        return accountBookService.getLedgerPage(new LedgerCursorForm());
+    }
+
+    @Benchmark
+    public LedgerSum sumAll() {
+        return accountRepository.sumAll();
+    }
+
+    @Benchmark
+    public void registerInfo() {
+        accountBookService.registerInfo(newForm());
+    }
+
+    @Benchmark
+    public void updateInfo() {
+        accountBookService.updateInfo(randomId(), newForm());
+    }
+
+    @Benchmark
+    public AccountBookForm getPageInfo() {
+
+        var id = randomId();
+        entityManagerFactory.getCache().evict(Account.class, id);
+        var accountBookForm = new AccountBookForm();
+        accountBookService.getPageInfo(id, accountBookForm);
+        return accountBookForm;
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1);
+    }
+
+    private AccountBookForm newForm() {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType(ThreadLocalRandom.current().nextBoolean() ? "income" : "expense");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("benchmarkItem");
+        accountBookForm.setPrice(ThreadLocalRandom.current().nextInt(1, 10000));
+        accountBookForm.setNote("benchmarkNote");
+        return accountBookForm;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.okozukai.benchmark;
+
+import com.example.okozukai.util.LedgerMath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LedgerMathBenchmark {
+
+    @Param({"10000000"})
+    int rows;
+
+    List<Long> amounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        var random = new SplittableRandom(42);
+        amounts = LongStream.range(0, rows).mapToObj(i -> random.nextLong(-150000, 200000)).toList();
+    }
+
+    @Benchmark
+    public long sumSequential() {
+        return amounts.stream().mapToLong(Long::longValue).reduce(0L, Math::addExact);
+    }
+
+    @Benchmark
+    public long sumParallel() {
+        return LedgerMath.sum(amounts, Long::longValue);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.okozukai.analytics;
+
+import com.example.okozukai.dto.ItemTotal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public final class ColumnarLedgerSnapshot {
+
+    // Layout, little-endian: 64-byte header, income and expense columns (long), item_date column (epoch day, int),
+    // item column (dictionary code, int), then the dictionary as length-prefixed UTF-8 strings. Rows are sorted by item_date, id.
+    static final int MAGIC = 0x435A4B4F;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 64;
+
+    static final int NULL_DAY = Integer.MIN_VALUE;
+
+    static final int MAX_ROWS = Integer.MAX_VALUE / Long.BYTES;
+
+    private final Instant createdAt;
+
+    private final int rowCount;
+
+    private final LongBuffer incomes;
+
+    private final LongBuffer expenses;
+
+    private final IntBuffer itemDates;
+
+    private final IntBuffer items;
+
+    private final String[] dictionary;
+
+    private ColumnarLedgerSnapshot(Instant createdAt, int rowCount, LongBuffer incomes, LongBuffer expenses, IntBuffer itemDates, IntBuffer items, String[] dictionary) {
+        this.createdAt = createdAt;
+        this.rowCount = rowCount;
+        this.incomes = incomes;
+        this.expenses = expenses;
+        this.itemDates = itemDates;
+        this.items = items;
+        this.dictionary = dictionary;
+    }
+
+    public static ColumnarLedgerSnapshot open(Path path) throws IOException {
+
+        // The mappings stay valid after the channel is closed, and a replaced file keeps its old inode until they are released.
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a columnar ledger snapshot: " + path);
+            }
+            var header = map(channel, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a columnar ledger snapshot: " + path);
+            }
+
+            var rowCount = header.getInt(16);
+            var dictionarySize = header.getInt(20);
+            var dictionaryOffset = header.getLong(56);
+            var dictionaryBuffer = map(channel, dictionaryOffset, channel.size() - dictionaryOffset);
+            var dictionary = new String[dictionarySize];
+            for (var code = 0; code < dictionarySize; code++) {
+                var bytes = new byte[dictionaryBuffer.getInt()];
+                dictionaryBuffer.get(bytes);
+                dictionary[code] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            return new ColumnarLedgerSnapshot(Instant.ofEpochMilli(header.getLong(8)), rowCount,
+                    map(channel, header.getLong(24), (long) rowCount * Long.BYTES).asLongBuffer(),
+                    map(channel, header.getLong(32), (long) rowCount * Long.BYTES).asLongBuffer(),
+                    map(channel, header.getLong(40), (long) rowCount * Integer.BYTES).asIntBuffer(),
+                    map(channel, header.getLong(48), (long) rowCount * Integer.BYTES).asIntBuffer(),
+                    dictionary);
+        }
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getDistinctItems() {
+        return dictionary.length;
+    }
+
+    public LocalDate itemDate(int row) {
+
+        var day = itemDates.get(row);
+        return day == NULL_DAY ? null : LocalDate.ofEpochDay(day);
+    }
+
+    public String item(int row) {
+        return dictionary[items.get(row)];
+    }
+
+    public long income(int row) {
+        return incomes.get(row);
+    }
+
+    public long expense(int row) {
+        return expenses.get(row);
+    }
+
+    public int firstRowOnOrAfter(LocalDate day) {
+
+        var target = Math.toIntExact(day.toEpochDay());
+        var low = 0;
+        var high = rowCount;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (itemDates.get(mid) < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public List<ItemTotal> sumByItemBetween(LocalDate from, LocalDate to) {
+
+        var incomeByItem = new long[dictionary.length];
+        var expenseByItem = new long[dictionary.length];
+        var seen = new boolean[dictionary.length];
+        var end = firstRowOnOrAfter(to.plusDays(1));
+        for (var row = firstRowOnOrAfter(from); row < end; row++) {
+            var code = items.get(row);
+            incomeByItem[code] = Math.addExact(incomeByItem[code], incomes.get(row));
+            expenseByItem[code] = Math.addExact(expenseByItem[code], expenses.get(row));
+            seen[code] = true;
+        }
+
+        var totals = new ArrayList<ItemTotal>();
+        for (var code = 0; code < dictionary.length; code++) {
+            if (seen[code]) {
+                totals.add(new ItemTotal(dictionary[code], incomeByItem[code], expenseByItem[code]));
+            }
+        }
+        totals.sort(Comparator.comparing(ItemTotal::getItem));
+
+        return totals;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
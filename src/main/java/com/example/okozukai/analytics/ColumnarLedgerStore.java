@@ -0,0 +1,63 @@
+package com.example.okozukai.analytics;
+
+import com.example.okozukai.dto.ColumnarSnapshotResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+@Slf4j
+@Component
+public class ColumnarLedgerStore {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${okozukai.analytics.snapshot-path}")
+    Path snapshotPath;
+
+    private volatile ColumnarLedgerSnapshot current;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void open() {
+
+        // A file left by an earlier process reflects whatever database it was exported from, so it is rewritten rather than trusted.
+        try {
+            export();
+        } catch (IOException e) {
+            log.warn("Columnar ledger snapshot {} could not be written and will be retried on the next export", snapshotPath, e);
+        }
+    }
+
+    @Scheduled(cron = "${okozukai.analytics.snapshot-cron}")
+    public synchronized ColumnarSnapshotResult export() throws IOException {
+
+        var start = System.currentTimeMillis();
+        new ColumnarLedgerWriter(jdbcTemplate).write(snapshotPath);
+        var snapshot = ColumnarLedgerSnapshot.open(snapshotPath);
+        current = snapshot;
+        var elapsedMillis = System.currentTimeMillis() - start;
+
+        log.info("Columnar ledger snapshot written with {} rows and {} items in {} ms", snapshot.getRowCount(), snapshot.getDistinctItems(), elapsedMillis);
+
+        return new ColumnarSnapshotResult(snapshot.getRowCount(), snapshot.getDistinctItems(), Files.size(snapshotPath), elapsedMillis);
+    }
+
+    public ColumnarLedgerSnapshot getCurrent() {
+
+        var snapshot = current;
+        if (snapshot == null) {
+            throw new NoSuchElementException("No columnar ledger snapshot has been exported yet");
+        }
+        return snapshot;
+    }
+}
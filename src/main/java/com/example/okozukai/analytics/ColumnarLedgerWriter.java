@@ -0,0 +1,190 @@
+package com.example.okozukai.analytics;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+class ColumnarLedgerWriter {
+
+    private static final String SELECT_ALL_SQL = "SELECT item_date, item, income, expense FROM ("
+            + "SELECT id, item_date, item, income, expense FROM account "
+            + "UNION ALL SELECT id, item_date, item, income, expense FROM account_archive) s "
+            + "ORDER BY item_date, id";
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ColumnarLedgerWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void write(Path target) throws IOException {
+
+        var directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        var columnFiles = new ArrayList<Path>(4);
+        var partial = directory.resolve(target.getFileName() + ".partial");
+        try {
+            for (var column : List.of("income", "expense", "item_date", "item")) {
+                columnFiles.add(Files.createTempFile(directory, target.getFileName() + ".", "." + column));
+            }
+
+            var dictionary = new LinkedHashMap<String, Integer>();
+            long rowCount;
+            try (var incomes = new ColumnOutput(columnFiles.get(0));
+                 var expenses = new ColumnOutput(columnFiles.get(1));
+                 var itemDates = new ColumnOutput(columnFiles.get(2));
+                 var items = new ColumnOutput(columnFiles.get(3))) {
+                jdbcTemplate.query(SELECT_ALL_SQL, rs -> {
+                    if (itemDates.count == ColumnarLedgerSnapshot.MAX_ROWS) {
+                        throw new IllegalStateException("Columnar snapshot is limited to " + ColumnarLedgerSnapshot.MAX_ROWS + " rows");
+                    }
+                    var itemDate = rs.getDate(1);
+                    itemDates.putInt(itemDate == null ? ColumnarLedgerSnapshot.NULL_DAY : Math.toIntExact(itemDate.toLocalDate().toEpochDay()));
+                    items.putInt(dictionary.computeIfAbsent(Objects.toString(rs.getString(2), ""), item -> dictionary.size()));
+                    incomes.putLong(rs.getLong(3));
+                    expenses.putLong(rs.getLong(4));
+                });
+                rowCount = itemDates.count;
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            try (var out = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                var incomeOffset = (long) ColumnarLedgerSnapshot.HEADER_BYTES;
+                var expenseOffset = incomeOffset + rowCount * Long.BYTES;
+                var itemDateOffset = expenseOffset + rowCount * Long.BYTES;
+                var itemOffset = itemDateOffset + rowCount * Integer.BYTES;
+                var dictionaryOffset = itemOffset + rowCount * Integer.BYTES;
+
+                var header = ByteBuffer.allocate(ColumnarLedgerSnapshot.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                        .putInt(ColumnarLedgerSnapshot.MAGIC)
+                        .putInt(ColumnarLedgerSnapshot.VERSION)
+                        .putLong(System.currentTimeMillis())
+                        .putInt((int) rowCount)
+                        .putInt(dictionary.size())
+                        .putLong(incomeOffset)
+                        .putLong(expenseOffset)
+                        .putLong(itemDateOffset)
+                        .putLong(itemOffset)
+                        .putLong(dictionaryOffset);
+                writeFully(out, header.flip());
+                for (var columnFile : columnFiles) {
+                    append(out, columnFile);
+                }
+                writeDictionary(out, dictionary);
+                out.force(true);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            for (var columnFile : columnFiles) {
+                Files.deleteIfExists(columnFile);
+            }
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    private static void append(FileChannel out, Path columnFile) throws IOException {
+
+        try (var in = FileChannel.open(columnFile, StandardOpenOption.READ)) {
+            var position = out.position();
+            var size = in.size();
+            var transferred = 0L;
+            while (transferred < size) {
+                transferred += out.transferFrom(in, position + transferred, size - transferred);
+            }
+            out.position(position + size);
+        }
+    }
+
+    private static void writeDictionary(FileChannel out, Map<String, Integer> dictionary) throws IOException {
+
+        var buffer = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (var item : dictionary.keySet()) {
+            var bytes = item.getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < Integer.BYTES + bytes.length) {
+                writeFully(out, buffer.flip());
+                buffer.clear();
+            }
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        writeFully(out, buffer.flip());
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static final class ColumnOutput implements Closeable {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        private long count;
+
+        ColumnOutput(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void putInt(int value) {
+
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+            count++;
+        }
+
+        void putLong(long value) {
+
+            ensureRemaining(Long.BYTES);
+            buffer.putLong(value);
+            count++;
+        }
+
+        private void ensureRemaining(int bytes) {
+
+            if (buffer.remaining() < bytes) {
+                try {
+                    flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void flush() throws IOException {
+
+            writeFully(channel, buffer.flip());
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.okozukai.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    public static final String LEDGER_QUERY_EXECUTOR = "ledgerQueryExecutor";
+
+    @Bean(LEDGER_QUERY_EXECUTOR)
+    public ThreadPoolTaskExecutor ledgerQueryExecutor(@Value("${okozukai.query-executor.pool-size}") int poolSize,
+                                                      @Value("${okozukai.query-executor.queue-capacity}") int queueCapacity,
+                                                      ObjectProvider<TaskDecorator> taskDecorator) {
+
+        var executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ledger-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+
+        return executor;
+    }
+}
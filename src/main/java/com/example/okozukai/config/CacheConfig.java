@@ -0,0 +1,42 @@
+package com.example.okozukai.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheConfig.CacheSpecProperties.class)
+public class CacheConfig {
+
+    public static final String NET_WORTH = "netWorth";
+
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties cacheSpecProperties) {
+
+        var caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setAllowNullValues(false);
+        cacheSpecProperties.getSpecs().forEach((name, spec) ->
+                caffeineCacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build()));
+
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    @Data
+    @ConfigurationProperties("okozukai.cache")
+    public static class CacheSpecProperties {
+
+        private Map<String, String> specs = new LinkedHashMap<>();
+
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.okozukai.config;
+
+import com.example.okozukai.service.AccountBookService;
+import com.example.okozukai.service.RegistrationGroupCommitter;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(value = "okozukai.registration.group-commit.enabled", havingValue = "true")
+@EnableConfigurationProperties(GroupCommitConfig.GroupCommitProperties.class)
+public class GroupCommitConfig {
+
+    @Bean
+    public RegistrationGroupCommitter registrationGroupCommitter(@Lazy AccountBookService accountBookService, @Lazy TransactionTemplate transactionTemplate,
+                                                                 GroupCommitProperties groupCommitProperties) {
+        return new RegistrationGroupCommitter(accountBookService, transactionTemplate, groupCommitProperties.getQueueCapacity(),
+                groupCommitProperties.getMaxBatchSize(), groupCommitProperties.getLinger(), groupCommitProperties.getOfferTimeout(),
+                groupCommitProperties.getCommitTimeout());
+    }
+
+    @Data
+    @ConfigurationProperties("okozukai.registration.group-commit")
+    public static class GroupCommitProperties {
+
+        private boolean enabled;
+
+        private int queueCapacity = 1024;
+
+        private int maxBatchSize = 100;
+
+        private Duration linger = Duration.ofMillis(5);
+
+        private Duration offerTimeout = Duration.ofMillis(500);
+
+        private Duration commitTimeout = Duration.ofSeconds(10);
+
+    }
+}
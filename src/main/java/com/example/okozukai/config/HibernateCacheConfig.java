@@ -0,0 +1,78 @@
+package com.example.okozukai.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.Data;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Configuration
+@EnableConfigurationProperties(HibernateCacheConfig.RegionProperties.class)
+public class HibernateCacheConfig {
+
+    public static final String ACCOUNT_REGION = "account";
+
+    public static final String LEDGER_QUERY_REGION = "ledgerQueries";
+
+    public static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(RegionProperties regionProperties) {
+
+        var cachingProvider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        var cacheManager = cachingProvider.getCacheManager(URI.create("okozukai-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        regionProperties.getRegions().forEach((name, region) -> {
+            var configuration = new CaffeineConfiguration<>();
+            configuration.setStatisticsEnabled(true);
+            if (region.getMaximumSize() != null) {
+                configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+            }
+            if (region.getExpireAfterWrite() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+            }
+            cacheManager.createCache(name, configuration);
+        });
+        // Holds one timestamp per table and must never evict or expire, or cached queries would outlive the writes that invalidate them.
+        var timestamps = new CaffeineConfiguration<>();
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, timestamps);
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Data
+    @ConfigurationProperties("okozukai.hibernate-cache")
+    public static class RegionProperties {
+
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+    }
+
+    @Data
+    public static class Region {
+
+        private Long maximumSize;
+
+        private Duration expireAfterWrite;
+
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.okozukai.config;
+
+import com.example.okozukai.metrics.RequestQueryMetricsInterceptor;
+import com.example.okozukai.metrics.RequestQueryRecorder;
+import com.example.okozukai.metrics.StatementCountingDataSource;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    public static final String DATA_SOURCE = "dataSource";
+
+    @Autowired
+    RequestQueryMetricsInterceptor requestQueryMetricsInterceptor;
+
+    @Autowired
+    RequestQueryRecorder requestQueryRecorder;
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && DATA_SOURCE.equals(beanName) ? new StatementCountingDataSource(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public TaskDecorator requestQueryTaskDecorator() {
+        return requestQueryRecorder::propagate;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestQueryRecorderCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.INTERCEPTOR, requestQueryRecorder);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+
+        var executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setTaskDecorator(requestQueryTaskDecorator());
+        configurer.setTaskExecutor(executor);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requestQueryMetricsInterceptor);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.okozukai.config;
+
+import com.example.okozukai.datasource.LocalReplicaSynchronizer;
+import com.example.okozukai.datasource.ReplicaReadAspect;
+import com.example.okozukai.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+@ConditionalOnProperty(value = "okozukai.datasource.replica.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceConfig.ReplicaProperties.class)
+public class ReplicaDataSourceConfig {
+
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    @Bean(PRIMARY_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+
+        var dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+
+        return dataSource;
+    }
+
+    @Bean(REPLICA_DATA_SOURCE)
+    public HikariDataSource replicaDataSource(ReplicaProperties replicaProperties) {
+
+        var url = replicaProperties.getUrl() != null ? replicaProperties.getUrl()
+                : "jdbc:h2:mem:okozukai-replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        var dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(replicaProperties.getUsername())
+                .password(replicaProperties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+
+        return dataSource;
+    }
+
+    @Bean
+    public LocalReplicaSynchronizer localReplicaSynchronizer(@Qualifier(PRIMARY_DATA_SOURCE) DataSource primaryDataSource,
+                                                             @Qualifier(REPLICA_DATA_SOURCE) DataSource replicaDataSource,
+                                                             ReplicaProperties replicaProperties) {
+        return new LocalReplicaSynchronizer(primaryDataSource, replicaDataSource, replicaProperties.getMaxStaleness());
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect() {
+        return new ReplicaReadAspect();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier(PRIMARY_DATA_SOURCE) DataSource primaryDataSource,
+                                                             @Qualifier(REPLICA_DATA_SOURCE) DataSource replicaDataSource,
+                                                             LocalReplicaSynchronizer localReplicaSynchronizer) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, localReplicaSynchronizer::isReplicaAvailable);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Data
+    @ConfigurationProperties("okozukai.datasource.replica")
+    public static class ReplicaProperties {
+
+        private boolean enabled;
+
+        private String url;
+
+        private String username = "sa";
+
+        private String password = "";
+
+        private Duration maxStaleness = Duration.ZERO;
+
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.okozukai.controller;
+
+import com.example.okozukai.dto.BalanceResult;
+import com.example.okozukai.dto.ColumnarSnapshotResult;
+import com.example.okozukai.dto.DeleteResult;
+import com.example.okozukai.dto.ImportResult;
+import com.example.okozukai.dto.ItemTotal;
+import com.example.okozukai.dto.LedgerHistoryPoint;
+import com.example.okozukai.dto.LedgerPage;
+import com.example.okozukai.dto.TopPage;
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.entity.LedgerJournalEntry;
+import com.example.okozukai.entity.MonthlyItemRollup;
+import com.example.okozukai.entity.MonthlyRollup;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.form.LedgerCursorForm;
+import com.example.okozukai.service.AccountBookService;
+import com.example.okozukai.service.AccountImportService;
+import com.example.okozukai.service.LedgerAnalyticsService;
+import com.example.okozukai.service.LedgerJournalService;
+import com.example.okozukai.service.LedgerRollupService;
+import com.example.okozukai.service.LedgerVersionService;
+import com.example.okozukai.service.RegistrationGroupCommitter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/account-book")
+public class AccountBookApiController {
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountImportService accountImportService;
+
+    @Autowired
+    LedgerVersionService ledgerVersionService;
+
+    @Autowired
+    LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    LedgerJournalService ledgerJournalService;
+
+    @Autowired
+    LedgerAnalyticsService ledgerAnalyticsService;
+
+    @Autowired(required = false)
+    RegistrationGroupCommitter registrationGroupCommitter;
+
+    @GetMapping
+    public ResponseEntity<TopPage> getList(LedgerCursorForm ledgerCursorForm, WebRequest webRequest) {
+
+        var eTag = ledgerVersionService.getETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(accountBookService.getTopPage(ledgerCursorForm));
+    }
+
+    @GetMapping("/balance")
+    public ResponseEntity<BalanceResult> getBalance(@RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+                                                    @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if (asOf != null) {
+            return ResponseEntity.ok(new BalanceResult(null, asOf, accountBookService.getBalanceAsOf(Date.valueOf(asOf))));
+        }
+        if (from != null && to != null) {
+            return ResponseEntity.ok(new BalanceResult(from, to, accountBookService.getTotalPriceBetween(Date.valueOf(from), Date.valueOf(to))));
+        }
+
+        return ResponseEntity.badRequest().build();
+    }
+
+    @GetMapping("/history")
+    public LedgerHistoryPoint getHistory(@RequestParam("at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ledgerJournalService.getStateAt(at);
+    }
+
+    @GetMapping("/{id}/journal")
+    public List<LedgerJournalEntry> getJournal(@PathVariable("id") Long id) {
+        return ledgerJournalService.getAccountHistory(id);
+    }
+
+    @GetMapping("/report")
+    public List<MonthlyRollup> getMonthlyReport(@RequestParam("year") int year) {
+        return ledgerRollupService.getMonthlyReport(year);
+    }
+
+    @GetMapping("/report/items")
+    public List<MonthlyItemRollup> getItemReport(@RequestParam("year") int year, @RequestParam("month") int month) {
+        return ledgerRollupService.getItemReport(year, month);
+    }
+
+    @PostMapping("/report/rebuild")
+    public ResponseEntity<Void> rebuildReport() {
+
+        ledgerRollupService.rebuild();
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/analytics/items")
+    public List<ItemTotal> getItemTotals(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ledgerAnalyticsService.getItemTotals(from, to);
+    }
+
+    @PostMapping("/analytics/snapshot")
+    public ColumnarSnapshotResult exportAnalyticsSnapshot() throws IOException {
+        return ledgerAnalyticsService.exportSnapshot();
+    }
+
+    @GetMapping("/import/progress")
+    public ResponseEntity<ImportResult> getImportProgress() {
+        return ResponseEntity.of(accountImportService.getProgress());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<LedgerPage> search(@RequestParam("q") String query,
+                                             @RequestParam(name = "page", defaultValue = "0") int page,
+                                             WebRequest webRequest) {
+
+        var eTag = ledgerVersionService.getETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(accountBookService.searchEntries(query, page));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Account> getAccount(@PathVariable("id") Long id, WebRequest webRequest) {
+
+        var eTag = ledgerVersionService.getETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(accountBookService.getBySpecifiedId(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<Account> registerInfo(@RequestBody AccountBookForm accountBookForm) {
+
+        var account = registrationGroupCommitter != null
+                ? registrationGroupCommitter.register(accountBookForm)
+                : accountBookService.registerInfo(accountBookForm);
+
+        return ResponseEntity.created(URI.create("/api/account-book/" + account.getId()))
+                .eTag(ledgerVersionService.getETag())
+                .body(account);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<Account>> registerInfos(@RequestBody List<AccountBookForm> accountBookForms) {
+
+        if (accountBookForms.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        var accounts = accountBookService.registerAll(accountBookForms);
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ledgerVersionService.getETag())
+                .body(accounts);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Void> updateInfo(@PathVariable("id") Long id, @RequestBody AccountBookForm accountBookForm) {
+
+        if (accountBookForm.getVersion() == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+
+        accountBookService.updateInfo(id, accountBookForm);
+
+        return ResponseEntity.noContent().eTag(ledgerVersionService.getETag()).build();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteInfo(@PathVariable("id") Long id) {
+
+        accountBookService.deleteBySpecifiedId(id);
+
+        return ResponseEntity.noContent().eTag(ledgerVersionService.getETag()).build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<DeleteResult> deleteInfos(@RequestParam(name = "ids", required = false) List<Long> ids,
+                                                    @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        int deletedRows;
+        if (ids != null) {
+            deletedRows = accountBookService.deleteByIds(ids);
+        } else if (from != null && to != null) {
+            deletedRows = accountBookService.deleteBetween(Date.valueOf(from), Date.valueOf(to));
+        } else {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok().eTag(ledgerVersionService.getETag()).body(new DeleteResult(deletedRows));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public void handleConflict() {
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public void handleNotFound() {
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public void handleBadRequest() {
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> handleQueueFull() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+}
@@ -1,12 +1,40 @@
 package com.example.okozukai.controller;
 
 
+import com.example.okozukai.form.AccountBookBatchForm;
 import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.form.LedgerCursorForm;
 import com.example.okozukai.service.AccountBookService;
+import com.example.okozukai.service.AccountExportService;
+import com.example.okozukai.service.AccountImportService;
+import com.example.okozukai.service.LedgerRollupService;
+import com.example.okozukai.service.RegistrationGroupCommitter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 public class AccountBookController {
@@ -14,6 +42,18 @@ public class AccountBookController {
     @Autowired
     AccountBookService accountBookService;
 
+    @Autowired
+    AccountImportService accountImportService;
+
+    @Autowired
+    AccountExportService accountExportService;
+
+    @Autowired
+    LedgerRollupService ledgerRollupService;
+
+    @Autowired(required = false)
+    RegistrationGroupCommitter registrationGroupCommitter;
+
     @GetMapping("/account-book/new")
     public String getRegisterPage(@ModelAttribute("registerInfo") AccountBookForm accountBookForm) {
 
@@ -21,24 +61,160 @@ public class AccountBookController {
     }
 
     @PostMapping("/account-book/new")
-    public String registerInfo(@ModelAttribute("registerInfo") AccountBookForm accountBookForm) {
+    public String registerInfo(@ModelAttribute("registerInfo") AccountBookForm accountBookForm, Model model, HttpServletResponse response) {
 
-        accountBookService.registerInfo(accountBookForm);
+        try {
+            if (registrationGroupCommitter != null) {
+                registrationGroupCommitter.register(accountBookForm);
+            } else {
+                accountBookService.registerInfo(accountBookForm);
+            }
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            model.addAttribute("registerError", "収入か支出を選択してください。");
+            return "new";
+        } catch (RejectedExecutionException e) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            model.addAttribute("registerError", "登録が混み合っています。しばらくしてからもう一度登録してください。");
+            return "new";
+        }
 
         return "redirect:/account-book";
     }
 
+    @GetMapping("/account-book/new/batch")
+    public String getBatchRegisterPage(@RequestParam(name = "rows", defaultValue = "10") int rows,
+                                       @ModelAttribute("registerInfos") AccountBookBatchForm accountBookBatchForm) {
+
+        while (accountBookBatchForm.getEntries().size() < rows) {
+            accountBookBatchForm.getEntries().add(new AccountBookForm());
+        }
+
+        return "new-batch";
+    }
+
+    @PostMapping("/account-book/new/batch")
+    public String registerInfos(@ModelAttribute("registerInfos") AccountBookBatchForm accountBookBatchForm, BindingResult bindingResult,
+                                Model model, HttpServletResponse response) {
+
+        var entries = new ArrayList<AccountBookForm>();
+        for (var i = 0; i < accountBookBatchForm.getEntries().size(); i++) {
+            var entry = accountBookBatchForm.getEntries().get(i);
+            if (entry.getPriceType() == null) {
+                continue;
+            }
+            if (bindingResult.hasFieldErrors("entries[" + i + "].*")) {
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                model.addAttribute("registerError", (i + 1) + "行目の入力内容に誤りがあります。");
+                return "new-batch";
+            }
+            entries.add(entry);
+        }
+        if (!entries.isEmpty()) {
+            accountBookService.registerAll(entries);
+        }
+
+        return "redirect:/account-book";
+    }
+
+    @GetMapping("/account-book/import")
+    public String getImportPage() {
+
+        return "import";
+    }
+
+    @PostMapping("/account-book/import")
+    public String importInfo(@RequestParam("file") MultipartFile file, Model model, HttpServletResponse response) throws IOException {
+
+        try {
+            model.addAttribute("importResult", accountImportService.importCsv(file));
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("importError", e.getMessage());
+        } catch (RejectedExecutionException e) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            model.addAttribute("importError", "別の取込を実行中です。完了してからもう一度取り込んでください。");
+        }
+
+        return "import";
+    }
+
+    @GetMapping("/account-book/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(name = "format", defaultValue = "csv") String format) {
+
+        var exportFormat = Arrays.stream(AccountExportService.Format.values())
+                .filter(candidate -> candidate.name().equalsIgnoreCase(format))
+                .findFirst()
+                .orElse(null);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        var mediaType = exportFormat == AccountExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        var fileName = "account-book." + format.toLowerCase();
+
+        StreamingResponseBody body = outputStream -> accountExportService.exportTo(outputStream, exportFormat);
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/account-book")
-    public String getTopPage(Model model) {
+    public String getTopPage(@ModelAttribute("cursor") LedgerCursorForm ledgerCursorForm,
+                             @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf,
+                             Model model) {
 
-        var dataFromDB = accountBookService.getFindAll();
-        var netWorth = accountBookService.getTotalPrice();
-        model.addAttribute("dbData", dataFromDB);
-        model.addAttribute("netWorth", netWorth);
+        var topPage = accountBookService.getTopPage(ledgerCursorForm);
+        model.addAttribute("dbData", topPage.getLedgerPage().getEntries());
+        model.addAttribute("ledgerPage", topPage.getLedgerPage());
+        model.addAttribute("netWorth", topPage.getNetWorth());
+        if (from != null && to != null) {
+            model.addAttribute("from", from);
+            model.addAttribute("to", to);
+            model.addAttribute("periodNetWorth", accountBookService.getTotalPriceBetween(Date.valueOf(from), Date.valueOf(to)));
+        }
+        if (asOf != null) {
+            model.addAttribute("asOf", asOf);
+            model.addAttribute("balanceAsOf", accountBookService.getBalanceAsOf(Date.valueOf(asOf)));
+        }
 
         return "/index";
     }
 
+    @GetMapping("/account-book/report")
+    public String getReportPage(@RequestParam(name = "year", required = false) Integer year,
+                                @RequestParam(name = "month", required = false) Integer month,
+                                Model model) {
+
+        var reportYear = year == null ? LocalDate.now().getYear() : year;
+        model.addAttribute("year", reportYear);
+        model.addAttribute("months", ledgerRollupService.getMonthlyReport(reportYear));
+        if (month != null) {
+            model.addAttribute("month", month);
+            model.addAttribute("items", ledgerRollupService.getItemReport(reportYear, month));
+        }
+
+        return "report";
+    }
+
+    @GetMapping("/account-book/search")
+    public String search(@RequestParam(name = "q", defaultValue = "") String query,
+                         @RequestParam(name = "page", defaultValue = "0") int page,
+                         Model model) {
+
+        model.addAttribute("q", query);
+        model.addAttribute("page", page);
+        model.addAttribute("searchResult", accountBookService.searchEntries(query, page));
+
+        return "search";
+    }
+
     @GetMapping("/account-book/update/{id}")
     public String getUpdatePage(@PathVariable("id") Long id, @ModelAttribute("updateInfo") AccountBookForm accountBookForm) {
 
@@ -48,9 +224,17 @@ public class AccountBookController {
     }
 
     @PutMapping("/account-book/update/{id}")
-    public String updateInfo(@PathVariable("id") Long id, @ModelAttribute("updateInfo") AccountBookForm accountBookForm) {
+    public String updateInfo(@PathVariable("id") Long id, @ModelAttribute("updateInfo") AccountBookForm accountBookForm,
+                             Model model, HttpServletResponse response) {
 
-        accountBookService.updateInfo(id, accountBookForm);
+        try {
+            accountBookService.updateInfo(id, accountBookForm);
+        } catch (OptimisticLockingFailureException e) {
+            response.setStatus(HttpStatus.CONFLICT.value());
+            model.addAttribute("updateError", "他の画面で更新されたため、最新の内容を表示しています。もう一度更新してください。");
+            accountBookService.getPageInfo(id, accountBookForm);
+            return "/update";
+        }
 
         return "redirect:/account-book";
     }
@@ -70,4 +254,29 @@ public class AccountBookController {
 
         return "redirect:/account-book";
     }
-}
\ No newline at end of file
+
+    @DeleteMapping("/account-book/delete")
+    public String deleteSelected(@RequestParam(name = "ids", required = false) List<Long> ids, RedirectAttributes redirectAttributes) {
+
+        var deletedRows = accountBookService.deleteByIds(ids == null ? List.of() : ids);
+        redirectAttributes.addFlashAttribute("deletedRows", deletedRows);
+
+        return "redirect:/account-book";
+    }
+
+    @DeleteMapping("/account-book/delete-range")
+    public String deleteRange(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                              @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                              RedirectAttributes redirectAttributes) {
+
+        var deletedRows = accountBookService.deleteBetween(Date.valueOf(from), Date.valueOf(to));
+        redirectAttributes.addFlashAttribute("deletedRows", deletedRows);
+
+        return "redirect:/account-book";
+    }
+
+    @ExceptionHandler(NoSuchElementException.class)
+    public void handleNotFound(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.NOT_FOUND.value());
+    }
+}
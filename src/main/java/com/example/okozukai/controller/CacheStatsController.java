@@ -0,0 +1,70 @@
+package com.example.okozukai.controller;
+
+import com.example.okozukai.config.HibernateCacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+public class CacheStatsController {
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @GetMapping("/account-book/cache-stats")
+    public Map<String, Map<String, Object>> getCacheStats() {
+
+        var result = new LinkedHashMap<String, Map<String, Object>>();
+        for (var name : cacheManager.getCacheNames()) {
+            var cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache != null && cache.getNativeCache() instanceof Cache<?, ?> nativeCache) {
+                var stats = nativeCache.stats();
+                var values = new LinkedHashMap<String, Object>();
+                values.put("size", nativeCache.estimatedSize());
+                values.put("hitCount", stats.hitCount());
+                values.put("missCount", stats.missCount());
+                values.put("hitRate", stats.hitRate());
+                values.put("evictionCount", stats.evictionCount());
+                result.put(name, values);
+            }
+        }
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        var accountRegion = statistics.getDomainDataRegionStatistics(HibernateCacheConfig.ACCOUNT_REGION);
+        result.put("hibernate." + HibernateCacheConfig.ACCOUNT_REGION, regionStats(accountRegion.getElementCountInMemory(),
+                accountRegion.getHitCount(), accountRegion.getMissCount()));
+        var queryRegion = statistics.getQueryRegionStatistics(HibernateCacheConfig.LEDGER_QUERY_REGION);
+        if (queryRegion != null) {
+            result.put("hibernate." + HibernateCacheConfig.LEDGER_QUERY_REGION, regionStats(queryRegion.getElementCountInMemory(),
+                    queryRegion.getHitCount(), queryRegion.getMissCount()));
+        }
+
+        return result;
+    }
+
+    private static Map<String, Object> regionStats(long size, long hitCount, long missCount) {
+
+        var values = new LinkedHashMap<String, Object>();
+        if (size >= 0) {
+            values.put("size", size);
+        }
+        values.put("hitCount", hitCount);
+        values.put("missCount", missCount);
+        values.put("hitRate", hitCount + missCount == 0 ? 1.0 : (double) hitCount / (hitCount + missCount));
+        return values;
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.okozukai.datasource;
+
+import com.example.okozukai.event.LedgerChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class LocalReplicaSynchronizer {
+
+    private static final String ACCOUNT_TABLE = "ACCOUNT";
+
+    private static final String ARCHIVE_TABLE = "ACCOUNT_ARCHIVE";
+
+    private static final Map<String, String> APPEND_ONLY_TABLES = Map.of(
+            "LEDGER_JOURNAL", "SEQ",
+            "LEDGER_SNAPSHOT", "ID",
+            "LEDGER_SNAPSHOT_LINE", "ID");
+
+    private static final String SELECT_SNAPSHOT_IDS_SQL = "SELECT ID FROM LEDGER_SNAPSHOT";
+
+    private static final List<String> DELETE_PRUNED_SNAPSHOTS_SQL = List.of(
+            "DELETE FROM LEDGER_SNAPSHOT_LINE WHERE NOT (SNAPSHOT_ID = ANY(?))",
+            "DELETE FROM LEDGER_SNAPSHOT WHERE NOT (ID = ANY(?))");
+
+    private static final String SELECT_TABLES_SQL = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'";
+
+    private static final int COPY_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate primary;
+
+    private final JdbcTemplate replica;
+
+    private final Duration maxStaleness;
+
+    private final ThreadPoolExecutor applier = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+        var thread = new Thread(runnable, "replica-applier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentSkipListMap<Long, Long> pendingSince = new ConcurrentSkipListMap<>();
+
+    private volatile boolean synced;
+
+    private List<String> derivedTables = List.of();
+
+    public LocalReplicaSynchronizer(DataSource primary, DataSource replica, Duration maxStaleness) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxStaleness = maxStaleness;
+    }
+
+    public boolean isReplicaAvailable() {
+
+        if (!synced) {
+            return false;
+        }
+        var oldest = pendingSince.firstEntry();
+        return oldest == null || System.nanoTime() - oldest.getValue() <= maxStaleness.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resync() {
+
+        try {
+            applier.submit(this::copyAll).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.error("Replica resynchronization failed; reads stay on the primary", e.getCause());
+        }
+    }
+
+    public void shutdown() {
+        applier.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+
+        var change = markBehind();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        applier.execute(() -> apply(change, event));
+                    } else {
+                        pendingSince.remove(change);
+                    }
+                }
+            });
+        } else {
+            applier.execute(() -> apply(change, event));
+        }
+    }
+
+    long markBehind() {
+
+        var change = sequence.incrementAndGet();
+        pendingSince.put(change, System.nanoTime());
+
+        return change;
+    }
+
+    private void apply(long change, LedgerChangedEvent event) {
+
+        if (!synced) {
+            copyAllQuietly();
+            return;
+        }
+
+        try {
+            switch (event.type()) {
+                case REGISTERED, UPDATED -> copyRows(ACCOUNT_TABLE, true, "ID = ANY(?)", (Object) toArray(event.accountIds()));
+                case DELETED -> replica.update("DELETE FROM " + ACCOUNT_TABLE + " WHERE ID = ANY(?)", (Object) toArray(event.accountIds()));
+                case IMPORTED -> copyRows(ACCOUNT_TABLE, true, "ID > ?", event.importedAfterId());
+                case ARCHIVED -> {
+                    copyRows(ARCHIVE_TABLE, false, "ID = ANY(?)", (Object) toArray(event.accountIds()));
+                    replica.update("DELETE FROM " + ACCOUNT_TABLE + " WHERE ID = ANY(?)", (Object) toArray(event.accountIds()));
+                }
+                default -> {
+                }
+            }
+            for (var table : APPEND_ONLY_TABLES.entrySet()) {
+                copyRows(table.getKey(), false, table.getValue() + " > ?",
+                        replica.queryForObject("SELECT COALESCE(MAX(" + table.getValue() + "), 0) FROM " + table.getKey(), Long.class));
+            }
+            // Snapshots are only appended to, except for the old ones the primary prunes.
+            var snapshotIds = toArray(primary.queryForList(SELECT_SNAPSHOT_IDS_SQL, Long.class));
+            DELETE_PRUNED_SNAPSHOTS_SQL.forEach(sql -> replica.update(sql, (Object) snapshotIds));
+            if (applier.getQueue().isEmpty()) {
+                for (var table : derivedTables) {
+                    replica.update("DELETE FROM " + table);
+                    copyRows(table, false, null);
+                }
+            }
+            pendingSince.remove(change);
+        } catch (DataAccessException e) {
+            log.warn("Replica could not apply {} and will be resynchronized", event.type(), e);
+            copyAllQuietly();
+        }
+    }
+
+    private void copyAllQuietly() {
+
+        try {
+            copyAll();
+        } catch (DataAccessException e) {
+            log.error("Replica resynchronization failed; reads stay on the primary", e);
+        }
+    }
+
+    private void copyAll() {
+
+        var start = System.currentTimeMillis();
+        synced = false;
+        var caughtUpTo = sequence.get();
+
+        var ddl = primary.queryForList("SCRIPT NODATA", String.class);
+        var tables = primary.queryForList(SELECT_TABLES_SQL, String.class);
+        replica.execute("DROP ALL OBJECTS");
+        ddl.forEach(replica::execute);
+        tables.forEach(table -> copyRows(table, false, null));
+
+        derivedTables = tables.stream().filter(table -> !ACCOUNT_TABLE.equals(table) && !ARCHIVE_TABLE.equals(table) && !APPEND_ONLY_TABLES.containsKey(table)).toList();
+        pendingSince.headMap(caughtUpTo, true).clear();
+        synced = true;
+
+        log.info("Replica resynchronized {} tables in {} ms", tables.size(), System.currentTimeMillis() - start);
+    }
+
+    private void copyRows(String table, boolean merge, String condition, Object... args) {
+
+        var sql = "SELECT * FROM " + table + (condition == null ? "" : " WHERE " + condition);
+        primary.query(sql, rs -> {
+            var metaData = rs.getMetaData();
+            var columns = new ArrayList<String>(metaData.getColumnCount());
+            for (var i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(metaData.getColumnName(i));
+            }
+            var insert = (merge ? "MERGE INTO " : "INSERT INTO ") + table + " (" + String.join(", ", columns) + ")"
+                    + (merge ? " KEY(ID)" : "") + " VALUES (" + String.join(", ", columns.stream().map(column -> "?").toList()) + ")";
+
+            var batch = new ArrayList<Object[]>(COPY_BATCH_SIZE);
+            while (rs.next()) {
+                var row = new Object[columns.size()];
+                for (var i = 0; i < row.length; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                batch.add(row);
+                if (batch.size() == COPY_BATCH_SIZE) {
+                    replica.batchUpdate(insert, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                replica.batchUpdate(insert, batch);
+            }
+            return null;
+        }, args);
+    }
+
+    private static Long[] toArray(Collection<Long> ids) {
+        return ids.toArray(Long[]::new);
+    }
+}
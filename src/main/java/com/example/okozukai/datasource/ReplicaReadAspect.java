@@ -0,0 +1,32 @@
+package com.example.okozukai.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.annotation.Transactional;
+
+@Aspect
+public class ReplicaReadAspect {
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = ThreadLocal.withInitial(() -> false);
+
+    public static boolean isReplicaRead() {
+        return REPLICA_READ.get();
+    }
+
+    @Around("within(com.example.okozukai.service..*) && @annotation(transactional)")
+    public Object routeReadOnly(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+
+        if (!transactional.readOnly()) {
+            return joinPoint.proceed();
+        }
+
+        var previous = REPLICA_READ.get();
+        REPLICA_READ.set(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            REPLICA_READ.set(previous);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.okozukai.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final BooleanSupplier replicaAvailable;
+
+    private final Map<Target, LongAdder> routedConnections = new EnumMap<>(Map.of(Target.PRIMARY, new LongAdder(), Target.REPLICA, new LongAdder()));
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier replicaAvailable) {
+
+        this.replicaAvailable = replicaAvailable;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+
+        var target = ReplicaReadAspect.isReplicaRead() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && replicaAvailable.getAsBoolean()
+                ? Target.REPLICA : Target.PRIMARY;
+        routedConnections.get(target).increment();
+
+        return target;
+    }
+
+    public long getRoutedConnections(Target target) {
+        return routedConnections.get(target).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        routedConnections.forEach((target, count) -> FunctionCounter.builder("okozukai.datasource.connections", count, LongAdder::sum)
+                .tag("target", target.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.okozukai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class BalanceResult {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private long balance;
+
+}
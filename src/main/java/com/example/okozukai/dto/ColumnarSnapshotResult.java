@@ -0,0 +1,18 @@
+package com.example.okozukai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ColumnarSnapshotResult {
+
+    private long rows;
+
+    private int distinctItems;
+
+    private long bytes;
+
+    private long elapsedMillis;
+
+}
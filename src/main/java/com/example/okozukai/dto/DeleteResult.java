@@ -0,0 +1,12 @@
+package com.example.okozukai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DeleteResult {
+
+    private int deletedRows;
+
+}
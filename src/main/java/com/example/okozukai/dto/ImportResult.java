@@ -0,0 +1,22 @@
+package com.example.okozukai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportResult {
+
+    private long totalRows;
+
+    private long importedRows;
+
+    private int committedChunks;
+
+    private int lastCommittedLine;
+
+    private long elapsedMillis;
+
+    private boolean finished;
+
+}
@@ -0,0 +1,21 @@
+package com.example.okozukai.dto;
+
+import com.example.okozukai.util.LedgerMath;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemTotal {
+
+    private String item;
+
+    private long income;
+
+    private long expense;
+
+    public long getNet() {
+        return LedgerMath.net(income, expense);
+    }
+
+}
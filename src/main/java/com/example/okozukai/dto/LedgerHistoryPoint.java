@@ -0,0 +1,22 @@
+package com.example.okozukai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class LedgerHistoryPoint {
+
+    private LocalDateTime at;
+
+    private long journalSeq;
+
+    private long totalIncome;
+
+    private long totalExpense;
+
+    private long netWorth;
+
+}
@@ -0,0 +1,30 @@
+package com.example.okozukai.dto;
+
+import com.example.okozukai.entity.Account;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LedgerPage {
+
+    private List<Account> entries;
+
+    private boolean hasNext;
+
+    private boolean hasPrevious;
+
+    @JsonIgnore
+    public Account getFirst() {
+        return entries.isEmpty() ? null : entries.get(0);
+    }
+
+    @JsonIgnore
+    public Account getLast() {
+        return entries.isEmpty() ? null : entries.get(entries.size() - 1);
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.example.okozukai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TopPage {
+
+    private LedgerPage ledgerPage;
+
+    private long netWorth;
+
+}
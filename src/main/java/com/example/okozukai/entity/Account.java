@@ -1,16 +1,29 @@
 package com.example.okozukai.entity;
 
 
+import com.example.okozukai.config.HibernateCacheConfig;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 import java.sql.Date;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ACCOUNT_REGION)
+@Table(indexes = @Index(name = "idx_account_item_date_id", columnList = "itemDate DESC, id DESC"))
 @Data
 @NoArgsConstructor
 public class Account {
@@ -23,10 +36,22 @@ public class Account {
 
     private String item;
 
-    private int income;
+    private long income;
 
-    private int expense;
+    private long expense;
 
     private String note;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
+
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private Long runningBalance;
+
+    @Transient
+    @EqualsAndHashCode.Exclude
+    private boolean archived;
+
 }
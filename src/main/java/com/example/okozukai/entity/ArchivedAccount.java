@@ -0,0 +1,46 @@
+package com.example.okozukai.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.sql.Date;
+
+@Entity
+@Immutable
+@Table(name = "account_archive", indexes = @Index(name = "idx_account_archive_item_date_id", columnList = "itemDate DESC, id DESC"))
+@Data
+@NoArgsConstructor
+public class ArchivedAccount {
+
+    @Id
+    private Long id;
+
+    private Date itemDate;
+
+    private String item;
+
+    private long income;
+
+    private long expense;
+
+    private String note;
+
+    public Account toAccount() {
+
+        var account = new Account();
+        account.setId(id);
+        account.setItemDate(itemDate);
+        account.setItem(item);
+        account.setIncome(income);
+        account.setExpense(expense);
+        account.setNote(note);
+        account.setArchived(true);
+
+        return account;
+    }
+}
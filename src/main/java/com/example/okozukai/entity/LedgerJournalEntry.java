@@ -0,0 +1,48 @@
+package com.example.okozukai.entity;
+
+import com.example.okozukai.event.LedgerChangedEvent;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.sql.Date;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "ledger_journal", indexes = {
+        @Index(name = "idx_ledger_journal_account_id", columnList = "accountId"),
+        @Index(name = "idx_ledger_journal_recorded_at", columnList = "recordedAt")
+})
+@Data
+@NoArgsConstructor
+public class LedgerJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    private LedgerChangedEvent.Type changeType;
+
+    private Long accountId;
+
+    private Date itemDate;
+
+    private String item;
+
+    private long income;
+
+    private long expense;
+
+    private String note;
+
+    private Timestamp recordedAt;
+
+}
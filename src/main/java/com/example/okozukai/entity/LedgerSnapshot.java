@@ -0,0 +1,36 @@
+package com.example.okozukai.entity;
+
+import com.example.okozukai.util.LedgerMath;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "ledger_snapshot")
+@Data
+@NoArgsConstructor
+public class LedgerSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private long journalSeq;
+
+    private Timestamp takenAt;
+
+    private long totalIncome;
+
+    private long totalExpense;
+
+    public long getNet() {
+        return LedgerMath.net(totalIncome, totalExpense);
+    }
+
+}
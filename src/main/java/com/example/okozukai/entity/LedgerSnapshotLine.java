@@ -0,0 +1,34 @@
+package com.example.okozukai.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.sql.Date;
+
+@Entity
+@Table(name = "ledger_snapshot_line", indexes = @Index(name = "idx_ledger_snapshot_line_snapshot_id", columnList = "snapshotId"))
+@Data
+@NoArgsConstructor
+public class LedgerSnapshotLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private long snapshotId;
+
+    private Date itemDate;
+
+    private String item;
+
+    private long income;
+
+    private long expense;
+
+}
@@ -0,0 +1,24 @@
+package com.example.okozukai.entity;
+
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+@Data
+@NoArgsConstructor
+public class LedgerTotal {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long totalIncome;
+
+    private long totalExpense;
+
+}
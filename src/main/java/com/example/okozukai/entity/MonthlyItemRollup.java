@@ -0,0 +1,43 @@
+package com.example.okozukai.entity;
+
+import com.example.okozukai.util.LedgerMath;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import java.io.Serializable;
+
+@Entity
+@IdClass(MonthlyItemRollup.Key.class)
+@Data
+@NoArgsConstructor
+public class MonthlyItemRollup {
+
+    @Id
+    private int yearMonth;
+
+    @Id
+    private String item;
+
+    private long income;
+
+    private long expense;
+
+    public long getNet() {
+        return LedgerMath.net(income, expense);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private int yearMonth;
+
+        private String item;
+
+    }
+}
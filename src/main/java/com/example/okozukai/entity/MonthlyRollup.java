@@ -0,0 +1,26 @@
+package com.example.okozukai.entity;
+
+import com.example.okozukai.util.LedgerMath;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+@Data
+@NoArgsConstructor
+public class MonthlyRollup {
+
+    @Id
+    private int yearMonth;
+
+    private long income;
+
+    private long expense;
+
+    public long getNet() {
+        return LedgerMath.net(income, expense);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.example.okozukai.event;
+
+import java.util.List;
+
+public record LedgerChangedEvent(Type type, List<Long> accountIds, long importedAfterId) {
+
+    public LedgerChangedEvent(Type type, List<Long> accountIds) {
+        this(type, accountIds, 0);
+    }
+
+    public LedgerChangedEvent(Type type, Long accountId) {
+        this(type, accountId == null ? List.of() : List.of(accountId));
+    }
+
+    // Identity values are taken at insert time, so a concurrent registration can commit a higher id before the chunk does.
+    // Consumers copy everything above the id that was the maximum when the chunk started instead of their own high-water mark.
+    public static LedgerChangedEvent imported(long afterId) {
+        return new LedgerChangedEvent(Type.IMPORTED, List.of(), afterId);
+    }
+
+    public enum Type {
+        REGISTERED, UPDATED, DELETED, IMPORTED, RECONCILED, ARCHIVED, SNAPSHOT_TAKEN
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.okozukai.form;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class AccountBookBatchForm {
+
+    private List<AccountBookForm> entries = new ArrayList<>();
+
+}
@@ -15,8 +15,10 @@ public class AccountBookForm {
 
     private String item;
 
-    private int price;
+    private long price;
 
     private String note;
 
+    private Long version;
+
 }
@@ -0,0 +1,24 @@
+package com.example.okozukai.form;
+
+import lombok.Data;
+
+import java.sql.Date;
+
+@Data
+public class LedgerCursorForm {
+
+    public static final String NEXT = "next";
+
+    public static final String PREVIOUS = "prev";
+
+    private Date cursorDate;
+
+    private Long cursorId;
+
+    private String direction;
+
+    public boolean hasCursor() {
+        return cursorDate != null && cursorId != null;
+    }
+
+}
@@ -0,0 +1,4 @@
+package com.example.okozukai.metrics;
+
+public record QueryCount(long statements, long entityLoads) {
+}
@@ -0,0 +1,75 @@
+package com.example.okozukai.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@Component
+public class RequestQueryMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String COUNTS_ATTRIBUTE = RequestQueryMetricsInterceptor.class.getName() + ".COUNTS";
+
+    @Autowired
+    RequestQueryRecorder requestQueryRecorder;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    public static QueryCount getQueryCount(HttpServletRequest request) {
+
+        var counts = (RequestQueryRecorder.Counts) request.getAttribute(COUNTS_ATTRIBUTE);
+
+        return counts == null ? new QueryCount(0, 0) : counts.toQueryCount();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        // The async dispatch that completes a streaming response runs preHandle again; it continues the same counts.
+        var counts = (RequestQueryRecorder.Counts) request.getAttribute(COUNTS_ATTRIBUTE);
+        if (counts == null) {
+            request.setAttribute(COUNTS_ATTRIBUTE, requestQueryRecorder.start());
+        } else {
+            requestQueryRecorder.bind(counts);
+        }
+
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        requestQueryRecorder.unbind();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+
+        requestQueryRecorder.unbind();
+        var counts = (RequestQueryRecorder.Counts) request.getAttribute(COUNTS_ATTRIBUTE);
+        if (counts == null) {
+            return;
+        }
+        var queryCount = counts.toQueryCount();
+        var uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        var uriTag = uri == null ? "UNKNOWN" : uri.toString();
+
+        DistributionSummary.builder("okozukai.request.statements")
+                .description("JDBC statements prepared per request, counted at the DataSource on the request, async and streaming threads")
+                .tag("method", request.getMethod())
+                .tag("uri", uriTag)
+                .register(meterRegistry)
+                .record(queryCount.statements());
+        DistributionSummary.builder("okozukai.request.entity.loads")
+                .description("Entities hydrated by Hibernate per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uriTag)
+                .register(meterRegistry)
+                .record(queryCount.entityLoads());
+    }
+}
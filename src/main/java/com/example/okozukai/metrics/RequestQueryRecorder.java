@@ -0,0 +1,90 @@
+package com.example.okozukai.metrics;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class RequestQueryRecorder extends EmptyInterceptor {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    public Counts start() {
+
+        var counts = new Counts();
+        CURRENT.set(counts);
+
+        return counts;
+    }
+
+    public void bind(Counts counts) {
+        CURRENT.set(counts);
+    }
+
+    public void unbind() {
+        CURRENT.remove();
+    }
+
+    public QueryCount current() {
+
+        var counts = CURRENT.get();
+
+        return counts == null ? new QueryCount(0, 0) : counts.toQueryCount();
+    }
+
+    // Async and streaming work runs on other threads, so executors carry the submitting request's counts to the worker.
+    public Runnable propagate(Runnable runnable) {
+
+        var counts = CURRENT.get();
+        if (counts == null) {
+            return runnable;
+        }
+
+        return () -> {
+            var previous = CURRENT.get();
+            CURRENT.set(counts);
+            try {
+                runnable.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    static void recordStatement() {
+
+        var counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements.incrementAndGet();
+        }
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+
+        var counts = CURRENT.get();
+        if (counts != null) {
+            counts.entityLoads.incrementAndGet();
+        }
+
+        return false;
+    }
+
+    public static final class Counts {
+
+        private final AtomicLong statements = new AtomicLong();
+
+        private final AtomicLong entityLoads = new AtomicLong();
+
+        public QueryCount toQueryCount() {
+            return new QueryCount(statements.get(), entityLoads.get());
+        }
+    }
+}
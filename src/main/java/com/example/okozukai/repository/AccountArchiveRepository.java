@@ -0,0 +1,49 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.ArchivedAccount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.sql.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+@Repository
+public interface AccountArchiveRepository extends JpaRepository<ArchivedAccount, Long> {
+
+    @Query("select a from ArchivedAccount a order by a.itemDate desc, a.id desc")
+    List<ArchivedAccount> findLatest(Pageable pageable);
+
+    @Query("select a from ArchivedAccount a where a.itemDate < :itemDate or (a.itemDate = :itemDate and a.id < :id) order by a.itemDate desc, a.id desc")
+    List<ArchivedAccount> findOlderThan(@Param("itemDate") Date itemDate, @Param("id") Long id, Pageable pageable);
+
+    @Query("select a from ArchivedAccount a where a.itemDate > :itemDate or (a.itemDate = :itemDate and a.id > :id) order by a.itemDate asc, a.id asc")
+    List<ArchivedAccount> findNewerThan(@Param("itemDate") Date itemDate, @Param("id") Long id, Pageable pageable);
+
+    @Query("select coalesce(sum(a.income), 0) as income, coalesce(sum(a.expense), 0) as expense from ArchivedAccount a where a.itemDate = :itemDate and a.id <= :id")
+    LedgerSum sumOnItemDateUpTo(@Param("itemDate") Date itemDate, @Param("id") Long id);
+
+    @Query("select a.itemDate as itemDate, coalesce(sum(a.income), 0) - coalesce(sum(a.expense), 0) as net from ArchivedAccount a where a.itemDate is not null group by a.itemDate")
+    List<DailyNet> sumByItemDate();
+
+    @Query("select max(a.itemDate) from ArchivedAccount a")
+    Date findMaxItemDate();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select a from ArchivedAccount a order by a.itemDate asc, a.id asc")
+    Stream<ArchivedAccount> streamAllOrderByItemDate();
+
+}
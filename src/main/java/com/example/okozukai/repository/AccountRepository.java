@@ -1,11 +1,74 @@
 package com.example.okozukai.repository;
 
+import com.example.okozukai.config.HibernateCacheConfig;
 import com.example.okozukai.entity.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.sql.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
+
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.LEDGER_QUERY_REGION)
+    })
+    @Query("select a from Account a order by a.itemDate desc, a.id desc")
+    List<Account> findLatest(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.LEDGER_QUERY_REGION)
+    })
+    @Query("select a from Account a where a.itemDate < :itemDate or (a.itemDate = :itemDate and a.id < :id) order by a.itemDate desc, a.id desc")
+    List<Account> findOlderThan(@Param("itemDate") Date itemDate, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.LEDGER_QUERY_REGION)
+    })
+    @Query("select a from Account a where a.itemDate > :itemDate or (a.itemDate = :itemDate and a.id > :id) order by a.itemDate asc, a.id asc")
+    List<Account> findNewerThan(@Param("itemDate") Date itemDate, @Param("id") Long id, Pageable pageable);
+
+    @Query("select coalesce(sum(a.income), 0) as income, coalesce(sum(a.expense), 0) as expense from Account a")
+    LedgerSum sumAll();
+
+    @Query(value = "SELECT COALESCE(SUM(income), 0) AS income, COALESCE(SUM(expense), 0) AS expense FROM "
+            + "(SELECT income, expense FROM account UNION ALL SELECT income, expense FROM account_archive)", nativeQuery = true)
+    LedgerSum sumAllIncludingArchive();
+
+    @Query("select coalesce(max(a.id), 0) from Account a")
+    long findMaxId();
+
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.LEDGER_QUERY_REGION)
+    })
+    @Query("select coalesce(sum(a.income), 0) as income, coalesce(sum(a.expense), 0) as expense from Account a where a.itemDate = :itemDate and a.id <= :id")
+    LedgerSum sumOnItemDateUpTo(@Param("itemDate") Date itemDate, @Param("id") Long id);
+
+    @Query("select a.itemDate as itemDate, coalesce(sum(a.income), 0) - coalesce(sum(a.expense), 0) as net from Account a where a.itemDate is not null group by a.itemDate")
+    List<DailyNet> sumByItemDate();
 
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select a from Account a order by a.itemDate asc, a.id asc")
+    Stream<Account> streamAllOrderByItemDate();
 
 }
@@ -0,0 +1,22 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.Account;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountRepositoryCustom {
+
+    void batchInsert(List<Account> accounts);
+
+    Optional<Account> updateIfVersionMatches(Account account, Long expectedVersion);
+
+    DeletedRows deleteAllByIdIn(Collection<Long> ids);
+
+    DeletedRows deleteAllByItemDateBetween(Date from, Date to);
+
+    DeletedRows moveToArchive(Date cutoff, int limit);
+
+}
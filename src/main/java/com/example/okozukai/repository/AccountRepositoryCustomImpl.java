@@ -0,0 +1,138 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.Account;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO account (item_date, item, income, expense, note) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_RETURNING_OLD_SQL = "SELECT id, item_date, item, income, expense, note, version FROM OLD TABLE ("
+            + "UPDATE account SET item_date = ?, item = ?, income = ?, expense = ?, note = ?, version = version + 1 "
+            + "WHERE id = ? AND (CAST(? AS BIGINT) IS NULL OR version = ?))";
+
+    private static final String DELETE_BY_IDS_SQL = "SELECT id, item_date, item, income, expense, note, version FROM OLD TABLE (DELETE FROM account WHERE id = ANY(?))";
+
+    private static final String DELETE_BETWEEN_SQL = "SELECT id, item_date, item, income, expense, note, version FROM OLD TABLE (DELETE FROM account WHERE item_date BETWEEN ? AND ?)";
+
+    private static final String DELETE_OLDER_THAN_SQL = "SELECT id, item_date, item, income, expense, note, version FROM OLD TABLE ("
+            + "DELETE FROM account WHERE item_date < ? FETCH FIRST ? ROWS ONLY)";
+
+    private static final String INSERT_ARCHIVE_SQL = "INSERT INTO account_archive (id, item_date, item, income, expense, note) VALUES (?, ?, ?, ?, ?, ?)";
+
+    static final String HOT_AND_ARCHIVED_SQL = "(SELECT item_date, item, income, expense FROM account "
+            + "UNION ALL SELECT item_date, item, income, expense FROM account_archive)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Value("${okozukai.import.jdbc-batch-size}")
+    int jdbcBatchSize;
+
+    @Override
+    public void batchInsert(List<Account> accounts) {
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, accounts, jdbcBatchSize, (ps, account) -> {
+            ps.setDate(1, account.getItemDate());
+            ps.setString(2, account.getItem());
+            ps.setLong(3, account.getIncome());
+            ps.setLong(4, account.getExpense());
+            ps.setString(5, account.getNote());
+        });
+        evictFromSecondLevelCache(List.of());
+    }
+
+    @Override
+    public Optional<Account> updateIfVersionMatches(Account account, Long expectedVersion) {
+
+        var previous = jdbcTemplate.query(UPDATE_RETURNING_OLD_SQL, this::toAccount,
+                account.getItemDate(), account.getItem(), account.getIncome(), account.getExpense(), account.getNote(),
+                account.getId(), expectedVersion, expectedVersion);
+
+        evictFromSecondLevelCache(List.of(account.getId()));
+
+        return previous.stream().findFirst();
+    }
+
+    @Override
+    public DeletedRows deleteAllByIdIn(Collection<Long> ids) {
+        var deleted = new DeletedRows(jdbcTemplate.query(DELETE_BY_IDS_SQL, this::toAccount, (Object) ids.toArray(Long[]::new)));
+        evictFromSecondLevelCache(deleted.ids());
+
+        return deleted;
+    }
+
+    @Override
+    public DeletedRows deleteAllByItemDateBetween(Date from, Date to) {
+        var deleted = new DeletedRows(jdbcTemplate.query(DELETE_BETWEEN_SQL, this::toAccount, from, to));
+        evictFromSecondLevelCache(deleted.ids());
+
+        return deleted;
+    }
+
+    @Override
+    public DeletedRows moveToArchive(Date cutoff, int limit) {
+
+        var moved = new DeletedRows(jdbcTemplate.query(DELETE_OLDER_THAN_SQL, this::toAccount, cutoff, limit));
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVE_SQL, moved.rows(), jdbcBatchSize, (ps, account) -> {
+            ps.setLong(1, account.getId());
+            ps.setDate(2, account.getItemDate());
+            ps.setString(3, account.getItem());
+            ps.setLong(4, account.getIncome());
+            ps.setLong(5, account.getExpense());
+            ps.setString(6, account.getNote());
+        });
+        evictFromSecondLevelCache(moved.ids());
+
+        return moved;
+    }
+
+    private void evictFromSecondLevelCache(Collection<Long> ids) {
+
+        Runnable eviction = () -> {
+            var cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            ids.forEach(id -> cache.evictEntityData(Account.class, id));
+            cache.evictQueryRegions();
+        };
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private Account toAccount(ResultSet rs, int rowNum) throws SQLException {
+
+        var account = new Account();
+        account.setId(rs.getLong("id"));
+        account.setItemDate(rs.getDate("item_date"));
+        account.setItem(rs.getString("item"));
+        account.setIncome(rs.getLong("income"));
+        account.setExpense(rs.getLong("expense"));
+        account.setNote(rs.getString("note"));
+        account.setVersion(rs.getLong("version"));
+
+        return account;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.okozukai.repository;
+
+import java.sql.Date;
+
+public interface DailyNet {
+
+    Date getItemDate();
+
+    long getNet();
+}
@@ -0,0 +1,34 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.util.LedgerMath;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public record DeletedRows(List<Account> rows) {
+
+    public int count() {
+        return rows.size();
+    }
+
+    public List<Long> ids() {
+        return rows.stream().map(Account::getId).toList();
+    }
+
+    public long income() {
+        return LedgerMath.sum(rows, Account::getIncome);
+    }
+
+    public long expense() {
+        return LedgerMath.sum(rows, Account::getExpense);
+    }
+
+    public Map<Date, Long> netByItemDate() {
+        var dated = rows.stream().filter(row -> Objects.nonNull(row.getItemDate())).toList();
+
+        return LedgerMath.sumBy(dated, Account::getItemDate, row -> LedgerMath.net(row.getIncome(), row.getExpense()));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.LedgerJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Repository
+public interface LedgerJournalRepository extends JpaRepository<LedgerJournalEntry, Long>, LedgerJournalRepositoryCustom {
+
+    List<LedgerJournalEntry> findByAccountIdOrderBySeq(Long accountId);
+
+    @Query("select coalesce(max(j.seq), 0) from LedgerJournalEntry j")
+    long findMaxSeq();
+
+    @Query("select coalesce(max(j.seq), 0) from LedgerJournalEntry j where j.recordedAt <= :at")
+    long findMaxSeqRecordedUpTo(@Param("at") Timestamp at);
+
+}
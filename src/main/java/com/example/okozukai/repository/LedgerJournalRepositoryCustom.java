@@ -0,0 +1,15 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.LedgerJournalEntry;
+
+import java.util.Collection;
+
+public interface LedgerJournalRepositoryCustom {
+
+    void append(Collection<LedgerJournalEntry> entries);
+
+    int appendImportedAfter(long accountId);
+
+    void truncate();
+
+}
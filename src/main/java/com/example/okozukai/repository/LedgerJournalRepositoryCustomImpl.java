@@ -0,0 +1,51 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.LedgerJournalEntry;
+import com.example.okozukai.event.LedgerChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+public class LedgerJournalRepositoryCustomImpl implements LedgerJournalRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO ledger_journal (change_type, account_id, item_date, item, income, expense, note, recorded_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_IMPORTED_SQL = "INSERT INTO ledger_journal (change_type, account_id, item_date, item, income, expense, note, recorded_at) "
+            + "SELECT ?, a.id, a.item_date, a.item, a.income, a.expense, a.note, ? FROM account a "
+            + "WHERE a.id > ? AND NOT EXISTS (SELECT 1 FROM ledger_journal j WHERE j.account_id = a.id) ORDER BY a.id";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${okozukai.import.jdbc-batch-size}")
+    int jdbcBatchSize;
+
+    @Override
+    public void append(Collection<LedgerJournalEntry> entries) {
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, jdbcBatchSize, (ps, entry) -> {
+            ps.setString(1, entry.getChangeType().name());
+            ps.setObject(2, entry.getAccountId());
+            ps.setDate(3, entry.getItemDate());
+            ps.setString(4, entry.getItem());
+            ps.setLong(5, entry.getIncome());
+            ps.setLong(6, entry.getExpense());
+            ps.setString(7, entry.getNote());
+            ps.setTimestamp(8, entry.getRecordedAt());
+        });
+    }
+
+    @Override
+    public int appendImportedAfter(long accountId) {
+        return jdbcTemplate.update(INSERT_IMPORTED_SQL, LedgerChangedEvent.Type.IMPORTED.name(), new Timestamp(System.currentTimeMillis()), accountId);
+    }
+
+    @Override
+    public void truncate() {
+        jdbcTemplate.update("DELETE FROM ledger_journal");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.okozukai.repository;
+
+public record LedgerPosition(long snapshotId, long snapshotSeq, long journalSeq) {
+
+    static final String STATE_SQL = "(SELECT item_date, item, income, expense FROM ledger_snapshot_line WHERE snapshot_id = ? "
+            + "UNION ALL SELECT item_date, item, income, expense FROM ledger_journal WHERE seq > ? AND seq <= ?)";
+
+    Object[] stateArgs() {
+        return new Object[]{snapshotId, snapshotSeq, journalSeq};
+    }
+}
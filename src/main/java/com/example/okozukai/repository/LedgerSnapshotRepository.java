@@ -0,0 +1,18 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.LedgerSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LedgerSnapshotRepository extends JpaRepository<LedgerSnapshot, Long>, LedgerSnapshotRepositoryCustom {
+
+    Optional<LedgerSnapshot> findFirstByJournalSeqLessThanEqualOrderByIdDesc(long journalSeq);
+
+    Optional<LedgerSnapshot> findFirstByOrderByIdAsc();
+
+    Optional<LedgerSnapshot> findFirstByOrderByIdDesc();
+
+}
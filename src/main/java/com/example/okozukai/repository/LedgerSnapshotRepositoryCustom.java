@@ -0,0 +1,19 @@
+package com.example.okozukai.repository;
+
+import java.util.List;
+
+public interface LedgerSnapshotRepositoryCustom {
+
+    void insertLines(long snapshotId, LedgerPosition position);
+
+    void insertLinesFromAccounts(long snapshotId);
+
+    LedgerSum sumAt(LedgerPosition position);
+
+    List<DailyNet> sumByItemDateAt(LedgerPosition position);
+
+    int deleteAllExceptGenesisAndLatest(int keep);
+
+    void truncate();
+
+}
@@ -0,0 +1,94 @@
+package com.example.okozukai.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.List;
+
+public class LedgerSnapshotRepositoryCustomImpl implements LedgerSnapshotRepositoryCustom {
+
+    private static final String INSERT_LINES_SQL = "INSERT INTO ledger_snapshot_line (snapshot_id, item_date, item, income, expense) "
+            + "SELECT ?, item_date, item, SUM(income), SUM(expense) FROM " + LedgerPosition.STATE_SQL + " s "
+            + "GROUP BY item_date, item HAVING SUM(income) <> 0 OR SUM(expense) <> 0";
+
+    private static final String INSERT_LINES_FROM_ACCOUNTS_SQL = "INSERT INTO ledger_snapshot_line (snapshot_id, item_date, item, income, expense) "
+            + "SELECT ?, item_date, item, SUM(income), SUM(expense) FROM " + AccountRepositoryCustomImpl.HOT_AND_ARCHIVED_SQL + " s "
+            + "GROUP BY item_date, item HAVING SUM(income) <> 0 OR SUM(expense) <> 0";
+
+    private static final String SUM_SQL = "SELECT COALESCE(SUM(income), 0), COALESCE(SUM(expense), 0) FROM " + LedgerPosition.STATE_SQL + " s";
+
+    private static final String SUM_BY_ITEM_DATE_SQL = "SELECT item_date, SUM(income) - SUM(expense) FROM " + LedgerPosition.STATE_SQL + " s "
+            + "WHERE item_date IS NOT NULL GROUP BY item_date";
+
+    private static final String PRUNABLE_SQL = "SELECT id FROM ledger_snapshot WHERE id > (SELECT MIN(id) FROM ledger_snapshot) "
+            + "AND id NOT IN (SELECT id FROM ledger_snapshot ORDER BY id DESC LIMIT ?)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertLines(long snapshotId, LedgerPosition position) {
+        jdbcTemplate.update(INSERT_LINES_SQL, snapshotId, position.snapshotId(), position.snapshotSeq(), position.journalSeq());
+    }
+
+    @Override
+    public void insertLinesFromAccounts(long snapshotId) {
+        jdbcTemplate.update(INSERT_LINES_FROM_ACCOUNTS_SQL, snapshotId);
+    }
+
+    @Override
+    public LedgerSum sumAt(LedgerPosition position) {
+        return jdbcTemplate.queryForObject(SUM_SQL, (rs, rowNum) -> new Sum(rs.getLong(1), rs.getLong(2)), position.stateArgs());
+    }
+
+    @Override
+    public List<DailyNet> sumByItemDateAt(LedgerPosition position) {
+        return jdbcTemplate.query(SUM_BY_ITEM_DATE_SQL, (rs, rowNum) -> new Daily(rs.getDate(1), rs.getLong(2)), position.stateArgs());
+    }
+
+    @Override
+    public int deleteAllExceptGenesisAndLatest(int keep) {
+
+        var ids = jdbcTemplate.queryForList(PRUNABLE_SQL, Long.class, keep);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        var idArray = (Object) ids.toArray(Long[]::new);
+        jdbcTemplate.update("DELETE FROM ledger_snapshot_line WHERE snapshot_id = ANY(?)", idArray);
+
+        return jdbcTemplate.update("DELETE FROM ledger_snapshot WHERE id = ANY(?)", idArray);
+    }
+
+    @Override
+    public void truncate() {
+        jdbcTemplate.update("DELETE FROM ledger_snapshot_line");
+        jdbcTemplate.update("DELETE FROM ledger_snapshot");
+    }
+
+    private record Sum(long income, long expense) implements LedgerSum {
+
+        @Override
+        public long getIncome() {
+            return income;
+        }
+
+        @Override
+        public long getExpense() {
+            return expense;
+        }
+    }
+
+    private record Daily(Date itemDate, long net) implements DailyNet {
+
+        @Override
+        public Date getItemDate() {
+            return itemDate;
+        }
+
+        @Override
+        public long getNet() {
+            return net;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.util.LedgerMath;
+
+public interface LedgerSum {
+
+    long getIncome();
+
+    long getExpense();
+
+    default long getNet() {
+        return LedgerMath.net(getIncome(), getExpense());
+    }
+
+    default LedgerSum plus(LedgerSum other) {
+
+        var income = Math.addExact(getIncome(), other.getIncome());
+        var expense = Math.addExact(getExpense(), other.getExpense());
+
+        return new LedgerSum() {
+            @Override
+            public long getIncome() {
+                return income;
+            }
+
+            @Override
+            public long getExpense() {
+                return expense;
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.LedgerTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+@Repository
+public interface LedgerTotalRepository extends JpaRepository<LedgerTotal, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from LedgerTotal t where t.id = :id")
+    Optional<LedgerTotal> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying
+    @Query("update LedgerTotal t set t.totalIncome = t.totalIncome + :income, t.totalExpense = t.totalExpense + :expense where t.id = :id")
+    int addDelta(@Param("id") Long id, @Param("income") long income, @Param("expense") long expense);
+
+}
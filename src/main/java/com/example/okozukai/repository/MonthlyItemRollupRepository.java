@@ -0,0 +1,17 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.MonthlyItemRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MonthlyItemRollupRepository extends JpaRepository<MonthlyItemRollup, MonthlyItemRollup.Key> {
+
+    @Query("select r from MonthlyItemRollup r where r.yearMonth = :yearMonth and (r.income <> 0 or r.expense <> 0) order by r.expense desc, r.income desc, r.item")
+    List<MonthlyItemRollup> findItems(@Param("yearMonth") int yearMonth);
+
+}
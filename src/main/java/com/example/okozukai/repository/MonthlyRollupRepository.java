@@ -0,0 +1,17 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.entity.MonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Integer>, MonthlyRollupRepositoryCustom {
+
+    @Query("select r from MonthlyRollup r where r.yearMonth between :from and :to and (r.income <> 0 or r.expense <> 0) order by r.yearMonth")
+    List<MonthlyRollup> findMonths(@Param("from") int from, @Param("to") int to);
+
+}
@@ -0,0 +1,13 @@
+package com.example.okozukai.repository;
+
+import java.util.Collection;
+
+public interface MonthlyRollupRepositoryCustom {
+
+    void addDeltas(Collection<RollupDelta> deltas);
+
+    void rebuild();
+
+    void rebuild(LedgerPosition position);
+
+}
@@ -0,0 +1,75 @@
+package com.example.okozukai.repository;
+
+import com.example.okozukai.util.LedgerMath;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class MonthlyRollupRepositoryCustomImpl implements MonthlyRollupRepositoryCustom {
+
+    private static final String MERGE_MONTH_SQL = "MERGE INTO monthly_rollup t "
+            + "USING (VALUES (CAST(? AS INT), CAST(? AS BIGINT), CAST(? AS BIGINT))) s(year_month, income, expense) "
+            + "ON t.year_month = s.year_month "
+            + "WHEN MATCHED THEN UPDATE SET income = t.income + s.income, expense = t.expense + s.expense "
+            + "WHEN NOT MATCHED THEN INSERT (year_month, income, expense) VALUES (s.year_month, s.income, s.expense)";
+
+    private static final String MERGE_ITEM_SQL = "MERGE INTO monthly_item_rollup t "
+            + "USING (VALUES (CAST(? AS INT), CAST(? AS VARCHAR), CAST(? AS BIGINT), CAST(? AS BIGINT))) s(year_month, item, income, expense) "
+            + "ON t.year_month = s.year_month AND t.item = s.item "
+            + "WHEN MATCHED THEN UPDATE SET income = t.income + s.income, expense = t.expense + s.expense "
+            + "WHEN NOT MATCHED THEN INSERT (year_month, item, income, expense) VALUES (s.year_month, s.item, s.income, s.expense)";
+
+    private static final String YEAR_MONTH = "YEAR(item_date) * 100 + MONTH(item_date)";
+
+    private static final List<String> DELETE_ALL_SQL = List.of("DELETE FROM monthly_item_rollup", "DELETE FROM monthly_rollup");
+
+    private static final String INSERT_MONTHS_SQL = "INSERT INTO monthly_rollup (year_month, income, expense) "
+            + "SELECT " + YEAR_MONTH + ", SUM(income), SUM(expense) FROM %s s "
+            + "WHERE item_date IS NOT NULL GROUP BY " + YEAR_MONTH;
+
+    private static final String INSERT_ITEMS_SQL = "INSERT INTO monthly_item_rollup (year_month, item, income, expense) "
+            + "SELECT " + YEAR_MONTH + ", COALESCE(item, ''), SUM(income), SUM(expense) FROM %s s "
+            + "WHERE item_date IS NOT NULL GROUP BY " + YEAR_MONTH + ", COALESCE(item, '')";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addDeltas(Collection<RollupDelta> deltas) {
+
+        var months = deltas.stream().collect(Collectors.groupingBy(RollupDelta::yearMonth));
+        jdbcTemplate.batchUpdate(MERGE_MONTH_SQL, months.entrySet(), months.size(), (ps, month) -> {
+            ps.setInt(1, month.getKey());
+            ps.setLong(2, LedgerMath.sum(month.getValue(), RollupDelta::income));
+            ps.setLong(3, LedgerMath.sum(month.getValue(), RollupDelta::expense));
+        });
+
+        var items = deltas.stream().collect(Collectors.groupingBy(delta -> Map.entry(delta.yearMonth(), delta.item())));
+        jdbcTemplate.batchUpdate(MERGE_ITEM_SQL, items.entrySet(), items.size(), (ps, item) -> {
+            ps.setInt(1, item.getKey().getKey());
+            ps.setString(2, item.getKey().getValue());
+            ps.setLong(3, LedgerMath.sum(item.getValue(), RollupDelta::income));
+            ps.setLong(4, LedgerMath.sum(item.getValue(), RollupDelta::expense));
+        });
+    }
+
+    @Override
+    public void rebuild() {
+
+        DELETE_ALL_SQL.forEach(jdbcTemplate::update);
+        jdbcTemplate.update(INSERT_MONTHS_SQL.formatted(AccountRepositoryCustomImpl.HOT_AND_ARCHIVED_SQL));
+        jdbcTemplate.update(INSERT_ITEMS_SQL.formatted(AccountRepositoryCustomImpl.HOT_AND_ARCHIVED_SQL));
+    }
+
+    @Override
+    public void rebuild(LedgerPosition position) {
+
+        DELETE_ALL_SQL.forEach(jdbcTemplate::update);
+        jdbcTemplate.update(INSERT_MONTHS_SQL.formatted(LedgerPosition.STATE_SQL), position.stateArgs());
+        jdbcTemplate.update(INSERT_ITEMS_SQL.formatted(LedgerPosition.STATE_SQL), position.stateArgs());
+    }
+}
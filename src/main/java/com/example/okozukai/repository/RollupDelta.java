@@ -0,0 +1,4 @@
+package com.example.okozukai.repository;
+
+public record RollupDelta(int yearMonth, String item, long income, long expense) {
+}
@@ -0,0 +1,336 @@
+package com.example.okozukai.search;
+
+import com.example.okozukai.event.LedgerChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class AccountSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final String SELECT_ALL_SQL = "SELECT id, item, note FROM account UNION ALL SELECT id, item, note FROM account_archive";
+
+    private static final String SELECT_NEWER_SQL = "SELECT id, item, note FROM account WHERE id > ?";
+
+    private static final String SELECT_BY_IDS_SQL = "SELECT id, item, note FROM account WHERE id = ANY(?)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private NavigableMap<String, PostingList> postings = new TreeMap<>();
+
+    private Map<Long, String[]> documents = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+
+        var start = System.currentTimeMillis();
+        var rows = jdbcTemplate.query(SELECT_ALL_SQL, this::toDocument);
+
+        lock.writeLock().lock();
+        try {
+            postings = new TreeMap<>();
+            documents = new HashMap<>();
+            rows.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Search index rebuilt with {} entries in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+
+        switch (event.type()) {
+            case REGISTERED, UPDATED -> reindex(event.accountIds());
+            case DELETED -> remove(event.accountIds());
+            case IMPORTED -> reindexAfter(event.importedAfterId());
+            default -> {
+            }
+        }
+    }
+
+    public List<Long> search(String query, int offset, int limit) {
+
+        var terms = tokenize(query);
+        if (terms.length == 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Collection<PostingList> driver = null;
+            var driverSize = Long.MAX_VALUE;
+            for (var term : terms) {
+                var lists = postings.subMap(term, true, term + Character.MAX_VALUE, false).values();
+                var size = totalSize(lists);
+                if (size == 0) {
+                    return List.of();
+                }
+                if (size < driverSize) {
+                    driver = lists;
+                    driverSize = size;
+                }
+            }
+
+            var candidates = new DescendingUnion(driver);
+            var result = new ArrayList<Long>(limit);
+            var skipped = 0;
+            while (result.size() < limit && candidates.hasNext()) {
+                var id = candidates.next();
+                if (matchesAll(documents.get(id), terms)) {
+                    if (skipped < offset) {
+                        skipped++;
+                    } else {
+                        result.add(id);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void reindex(Collection<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return;
+        }
+        var rows = jdbcTemplate.query(SELECT_BY_IDS_SQL, this::toDocument, (Object) ids.toArray(Long[]::new));
+
+        lock.writeLock().lock();
+        try {
+            rows.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void reindexAfter(long afterId) {
+
+        var rows = jdbcTemplate.query(SELECT_NEWER_SQL, this::toDocument, afterId);
+
+        lock.writeLock().lock();
+        try {
+            rows.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Collection<Long> ids) {
+
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static String[] tokenize(String text) {
+
+        if (text == null) {
+            return new String[0];
+        }
+
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private Document toDocument(ResultSet rs, int rowNum) throws SQLException {
+        return new Document(rs.getLong("id"), Objects.toString(rs.getString("item"), "") + " " + Objects.toString(rs.getString("note"), ""));
+    }
+
+    private void put(Document document) {
+
+        removeDocument(document.id());
+
+        var tokens = tokenize(document.text());
+        for (var i = 0; i < tokens.length; i++) {
+            var entry = postings.ceilingEntry(tokens[i]);
+            if (entry != null && entry.getKey().equals(tokens[i])) {
+                tokens[i] = entry.getKey();
+                entry.getValue().add(document.id());
+            } else {
+                var list = new PostingList();
+                list.add(document.id());
+                postings.put(tokens[i], list);
+            }
+        }
+        documents.put(document.id(), tokens);
+    }
+
+    private void removeDocument(long id) {
+
+        var tokens = documents.remove(id);
+        if (tokens == null) {
+            return;
+        }
+        for (var token : tokens) {
+            var list = postings.get(token);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private static long totalSize(Collection<PostingList> lists) {
+        return lists.stream().mapToLong(list -> list.size).sum();
+    }
+
+    private static boolean matchesAll(String[] tokens, String[] terms) {
+
+        for (var term : terms) {
+            if (Arrays.stream(tokens).noneMatch(token -> token.startsWith(term))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Document(long id, String text) {
+    }
+
+    static final class PostingList {
+
+        private long[] ids = new long[2];
+
+        private int size;
+
+        void add(long id) {
+
+            if (size > 0 && ids[size - 1] >= id) {
+                var index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id) {
+
+            var index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        private void insertAt(int index, long id) {
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+
+    private static final class DescendingUnion {
+
+        private final PriorityQueue<Cursor> cursors;
+
+        private long last = Long.MIN_VALUE;
+
+        private Long next;
+
+        DescendingUnion(Collection<PostingList> lists) {
+
+            var initial = new ArrayList<Cursor>(lists.size());
+            for (var list : lists) {
+                if (list.size > 0) {
+                    initial.add(new Cursor(list, list.size - 1));
+                }
+            }
+            cursors = new PriorityQueue<>(initial);
+            advance();
+        }
+
+        boolean hasNext() {
+            return next != null;
+        }
+
+        long next() {
+
+            long current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+
+            next = null;
+            while (!cursors.isEmpty()) {
+                var cursor = cursors.poll();
+                var id = cursor.id();
+                if (cursor.position > 0) {
+                    cursor.position--;
+                    cursors.add(cursor);
+                }
+                if (id != last) {
+                    last = id;
+                    next = id;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+
+        private final PostingList list;
+
+        private int position;
+
+        Cursor(PostingList list, int position) {
+            this.list = list;
+            this.position = position;
+        }
+
+        long id() {
+            return list.ids[position];
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return Long.compare(other.id(), id());
+        }
+    }
+}
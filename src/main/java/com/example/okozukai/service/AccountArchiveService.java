@@ -0,0 +1,173 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.entity.ArchivedAccount;
+import com.example.okozukai.event.LedgerChangedEvent;
+import com.example.okozukai.repository.AccountArchiveRepository;
+import com.example.okozukai.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Slf4j
+@Service
+public class AccountArchiveService {
+
+    static final Comparator<Account> LEDGER_ORDER = Comparator.comparing(Account::getItemDate, Comparator.nullsFirst(Comparator.<Date>naturalOrder()))
+            .thenComparing(Account::getId);
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AccountArchiveRepository accountArchiveRepository;
+
+    @Autowired
+    LedgerTotalService ledgerTotalService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${okozukai.archive.hot-years}")
+    int hotYears;
+
+    @Value("${okozukai.archive.chunk-size}")
+    int chunkSize;
+
+    private volatile LocalDate archivedThrough;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+
+        var maxItemDate = accountArchiveRepository.findMaxItemDate();
+        archivedThrough = maxItemDate == null ? null : maxItemDate.toLocalDate();
+    }
+
+    public boolean hasArchived() {
+        return archivedThrough != null;
+    }
+
+    public boolean covers(Date itemDate) {
+
+        var through = archivedThrough;
+        return through != null && (itemDate == null || !itemDate.toLocalDate().isAfter(through));
+    }
+
+    public boolean reachesArchive(List<Account> newestFirst, Pageable limit) {
+
+        if (newestFirst.size() < limit.getPageSize()) {
+            return hasArchived();
+        }
+        return covers(newestFirst.get(newestFirst.size() - 1).getItemDate());
+    }
+
+    @Scheduled(cron = "${okozukai.archive.cron}")
+    public long archive() {
+        return archiveBefore(LocalDate.now().withDayOfYear(1).minusYears(hotYears - 1L));
+    }
+
+    public long archiveBefore(LocalDate cutoff) {
+
+        var start = System.currentTimeMillis();
+        var lastArchivedDay = cutoff.minusDays(1);
+        // Widen the archived range before moving anything so a listing never skips a row that is between tables.
+        if (archivedThrough == null || archivedThrough.isBefore(lastArchivedDay)) {
+            archivedThrough = lastArchivedDay;
+        }
+
+        long archivedRows = 0;
+        int moved;
+        try {
+            do {
+                moved = transactionTemplate.execute(status -> moveChunk(Date.valueOf(cutoff)));
+                archivedRows += moved;
+            } while (moved == chunkSize);
+        } finally {
+            refresh();
+        }
+
+        log.info("Archived {} entries dated before {} in {} ms", archivedRows, cutoff, System.currentTimeMillis() - start);
+
+        return archivedRows;
+    }
+
+    private int moveChunk(Date cutoff) {
+
+        // A move changes no total, but the balance index rebuild reads both tables under the total row and must not see a row twice.
+        ledgerTotalService.applyDelta(0, 0);
+        var moved = accountRepository.moveToArchive(cutoff, chunkSize);
+        if (moved.count() > 0) {
+            applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.ARCHIVED, moved.ids()));
+        }
+
+        return moved.count();
+    }
+
+    static List<Account> merge(List<Account> hot, List<ArchivedAccount> archived, Comparator<Account> order, int limit) {
+
+        return Stream.concat(hot.stream(), archived.stream().map(ArchivedAccount::toAccount))
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    static Stream<Account> mergeOrdered(Stream<Account> hot, Stream<Account> archived) {
+
+        var hotIterator = hot.iterator();
+        var archivedIterator = archived.iterator();
+        var merged = new Iterator<Account>() {
+
+            private Account nextHot = hotIterator.hasNext() ? hotIterator.next() : null;
+
+            private Account nextArchived = archivedIterator.hasNext() ? archivedIterator.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextHot != null || nextArchived != null;
+            }
+
+            @Override
+            public Account next() {
+
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if (nextArchived == null || nextHot != null && LEDGER_ORDER.compare(nextHot, nextArchived) <= 0) {
+                    var current = nextHot;
+                    nextHot = hotIterator.hasNext() ? hotIterator.next() : null;
+                    return current;
+                }
+                var current = nextArchived;
+                nextArchived = archivedIterator.hasNext() ? archivedIterator.next() : null;
+                return current;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(hot::close)
+                .onClose(archived::close);
+    }
+}
@@ -1,13 +1,45 @@
 package com.example.okozukai.service;
 
+import com.example.okozukai.config.AsyncConfig;
+import com.example.okozukai.config.CacheConfig;
+import com.example.okozukai.dto.LedgerPage;
+import com.example.okozukai.dto.TopPage;
 import com.example.okozukai.entity.Account;
+import com.example.okozukai.event.LedgerChangedEvent;
 import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.form.LedgerCursorForm;
+import com.example.okozukai.repository.AccountArchiveRepository;
 import com.example.okozukai.repository.AccountRepository;
+import com.example.okozukai.repository.DeletedRows;
+import com.example.okozukai.search.AccountSearchIndex;
+import com.example.okozukai.util.LedgerMath;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class AccountBookService {
@@ -15,7 +47,75 @@ public class AccountBookService {
     @Autowired
     AccountRepository accountRepository;
 
-    public void registerInfo(AccountBookForm accountBookForm) {
+    @Autowired
+    AccountArchiveRepository accountArchiveRepository;
+
+    @Autowired
+    AccountArchiveService accountArchiveService;
+
+    @Autowired
+    LedgerTotalService ledgerTotalService;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    AccountSearchIndex accountSearchIndex;
+
+    @Autowired
+    LedgerBalanceIndex ledgerBalanceIndex;
+
+    @Autowired
+    LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    LedgerJournalService ledgerJournalService;
+
+    @Lazy
+    @Autowired
+    AccountBookService self;
+
+    @Autowired
+    @Qualifier(AsyncConfig.LEDGER_QUERY_EXECUTOR)
+    Executor ledgerQueryExecutor;
+
+    @Value("${okozukai.ledger.page-size}")
+    int pageSize;
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NET_WORTH, allEntries = true)
+    public Account registerInfo(AccountBookForm accountBookForm) {
+
+        var account = toAccount(accountBookForm);
+        accountRepository.save(account);
+        ledgerTotalService.applyDelta(account.getIncome(), account.getExpense());
+        ledgerJournalService.recordRegistered(List.of(account));
+        ledgerBalanceIndex.add(account.getItemDate(), LedgerMath.net(account.getIncome(), account.getExpense()));
+        ledgerRollupService.add(List.of(account));
+        applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.REGISTERED, account.getId()));
+
+        return account;
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NET_WORTH, allEntries = true)
+    public List<Account> registerAll(List<AccountBookForm> accountBookForms) {
+
+        var accounts = accountBookForms.stream().map(AccountBookService::toAccount).toList();
+        accountRepository.saveAll(accounts);
+        ledgerTotalService.applyDelta(LedgerMath.sum(accounts, Account::getIncome), LedgerMath.sum(accounts, Account::getExpense));
+        ledgerJournalService.recordRegistered(accounts);
+        ledgerBalanceIndex.add(LedgerMath.sumBy(accounts.stream().filter(account -> account.getItemDate() != null).toList(),
+                Account::getItemDate, account -> LedgerMath.net(account.getIncome(), account.getExpense())));
+        ledgerRollupService.add(accounts);
+        applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.REGISTERED, accounts.stream().map(Account::getId).toList()));
+
+        return accounts;
+    }
+
+    static Account toAccount(AccountBookForm accountBookForm) {
 
         var account = new Account();
         account.setId(null);
@@ -27,58 +127,229 @@ public class AccountBookService {
             account.setExpense(accountBookForm.getPrice());
         }
         account.setNote(accountBookForm.getNote());
-        accountRepository.save(account);
+
+        return account;
     }
 
+    @Timed(value = "okozukai.service", histogram = true)
     public List<Account> getFindAll() {
-        var dataFromDB = accountRepository.findAll();
-        dataFromDB.sort(Comparator.comparing(Account::getItemDate).thenComparing(Account::getId).reversed());
-        return dataFromDB;
+
+        var sort = Sort.by(Sort.Order.desc("itemDate"), Sort.Order.desc("id"));
+        var entries = accountRepository.findAll(sort);
+        if (accountArchiveService.hasArchived()) {
+            entries = AccountArchiveService.merge(entries, accountArchiveRepository.findAll(sort), AccountArchiveService.LEDGER_ORDER.reversed(), Integer.MAX_VALUE);
+        }
+        applyRunningBalance(entries, 0);
+
+        return entries;
     }
 
-    public int getTotalPrice() {
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional(readOnly = true)
+    public LedgerPage getLedgerPage(LedgerCursorForm ledgerCursorForm) {
 
-        var dataFromDB = accountRepository.findAll();
-        int totalExpense = dataFromDB.stream().mapToInt(Account::getExpense).sum();
-        int totalIncome = dataFromDB.stream().mapToInt(Account::getIncome).sum();
-        int netWorth = totalIncome - totalExpense;
+        var limit = PageRequest.of(0, pageSize + 1);
 
-        return netWorth;
+        if (ledgerCursorForm.hasCursor() && LedgerCursorForm.PREVIOUS.equals(ledgerCursorForm.getDirection())) {
+            var newer = new ArrayList<>(accountRepository.findNewerThan(ledgerCursorForm.getCursorDate(), ledgerCursorForm.getCursorId(), limit));
+            if (accountArchiveService.covers(ledgerCursorForm.getCursorDate())) {
+                newer = new ArrayList<>(AccountArchiveService.merge(newer,
+                        accountArchiveRepository.findNewerThan(ledgerCursorForm.getCursorDate(), ledgerCursorForm.getCursorId(), limit),
+                        AccountArchiveService.LEDGER_ORDER, limit.getPageSize()));
+            }
+            if (newer.isEmpty()) {
+                return getLedgerPage(new LedgerCursorForm());
+            }
+            var hasPrevious = newer.size() > pageSize;
+            var entries = new ArrayList<>(newer.subList(0, Math.min(newer.size(), pageSize)));
+            Collections.reverse(entries);
+            applyPageRunningBalance(entries);
+            return new LedgerPage(entries, true, hasPrevious);
+        }
+
+        if (ledgerCursorForm.hasCursor()) {
+            var older = accountRepository.findOlderThan(ledgerCursorForm.getCursorDate(), ledgerCursorForm.getCursorId(), limit);
+            if (accountArchiveService.reachesArchive(older, limit)) {
+                older = AccountArchiveService.merge(older,
+                        accountArchiveRepository.findOlderThan(ledgerCursorForm.getCursorDate(), ledgerCursorForm.getCursorId(), limit),
+                        AccountArchiveService.LEDGER_ORDER.reversed(), limit.getPageSize());
+            }
+            var hasNext = older.size() > pageSize;
+            var entries = older.subList(0, Math.min(older.size(), pageSize));
+            applyPageRunningBalance(entries);
+            return new LedgerPage(entries, hasNext, true);
+        }
+
+        var latest = accountRepository.findLatest(limit);
+        if (accountArchiveService.reachesArchive(latest, limit)) {
+            latest = AccountArchiveService.merge(latest, accountArchiveRepository.findLatest(limit), AccountArchiveService.LEDGER_ORDER.reversed(), limit.getPageSize());
+        }
+        var hasNext = latest.size() > pageSize;
+        var entries = latest.subList(0, Math.min(latest.size(), pageSize));
+        applyPageRunningBalance(entries);
+        return new LedgerPage(entries, hasNext, false);
     }
 
-    public void updateInfo(long id, AccountBookForm accountBookForm) {
+    private void applyPageRunningBalance(List<Account> entries) {
 
-        var data = getBySpecifiedId(id);
-        accountBookForm.setId(data.getId());
+        if (entries.isEmpty()) {
+            return;
+        }
 
-        var account = new Account();
-        account.setId(data.getId());
-        account.setItemDate(accountBookForm.getItemDate());
-        account.setItem(accountBookForm.getItem());
+        var oldest = entries.get(entries.size() - 1);
+        if (oldest.getItemDate() == null) {
+            return;
+        }
 
-        if (accountBookForm.getPriceType().equals("income")) {
-            account.setIncome(accountBookForm.getPrice());
-            account.setExpense(0);
-        } else if (accountBookForm.getPriceType().equals("expense")) {
-            account.setIncome(0);
-            account.setExpense(accountBookForm.getPrice());
+        var dayBefore = oldest.getItemDate().toLocalDate().minusDays(1);
+        var sameDay = accountRepository.sumOnItemDateUpTo(oldest.getItemDate(), oldest.getId());
+        if (accountArchiveService.covers(oldest.getItemDate())) {
+            sameDay = sameDay.plus(accountArchiveRepository.sumOnItemDateUpTo(oldest.getItemDate(), oldest.getId()));
         }
-        account.setNote(accountBookForm.getNote());
-        accountRepository.save(account);
+        var checkpoint = Math.subtractExact(Math.addExact(ledgerBalanceIndex.balanceAsOf(dayBefore), sameDay.getNet()),
+                LedgerMath.net(oldest.getIncome(), oldest.getExpense()));
+        applyRunningBalance(entries, checkpoint);
+    }
+
+    private static void applyRunningBalance(List<Account> entries, long openingBalance) {
+
+        var last = entries.size() - 1;
+        var balances = LedgerMath.runningTotals(openingBalance, entries.size(), i -> {
+            var entry = entries.get(last - i);
+            return LedgerMath.net(entry.getIncome(), entry.getExpense());
+        });
+        for (var i = 0; i <= last; i++) {
+            entries.get(last - i).setRunningBalance(balances[i]);
+        }
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional(readOnly = true)
+    public LedgerPage searchEntries(String query, int page) {
+
+        var ids = accountSearchIndex.search(query, page * pageSize, pageSize + 1);
+        var hasNext = ids.size() > pageSize;
+        var pageIds = ids.subList(0, Math.min(ids.size(), pageSize));
+
+        var accounts = accountRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity(), (first, second) -> first, HashMap::new));
+        if (accounts.size() < pageIds.size() && accountArchiveService.hasArchived()) {
+            accountArchiveRepository.findAllById(pageIds.stream().filter(id -> !accounts.containsKey(id)).toList())
+                    .forEach(archived -> accounts.put(archived.getId(), archived.toAccount()));
+        }
+        var entries = pageIds.stream().map(accounts::get).filter(Objects::nonNull).toList();
+
+        return new LedgerPage(entries, hasNext, page > 0);
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    public TopPage getTopPage(LedgerCursorForm ledgerCursorForm) {
+
+        var netWorth = CompletableFuture.supplyAsync(self::getTotalPrice, ledgerQueryExecutor);
+        var ledgerPage = self.getLedgerPage(ledgerCursorForm);
+
+        return new TopPage(ledgerPage, netWorth.join());
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Cacheable(CacheConfig.NET_WORTH)
+    public long getTotalPrice() {
+
+        var ledgerTotal = ledgerTotalService.getLedgerTotal();
 
+        return LedgerMath.net(ledgerTotal.getTotalIncome(), ledgerTotal.getTotalExpense());
     }
 
+    @Timed(value = "okozukai.service", histogram = true)
+    public long getTotalPriceBetween(Date from, Date to) {
+        return ledgerBalanceIndex.balanceBetween(from.toLocalDate(), to.toLocalDate());
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    public long getBalanceAsOf(Date date) {
+        return ledgerBalanceIndex.balanceAsOf(date.toLocalDate());
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NET_WORTH, allEntries = true)
+    public void updateInfo(long id, AccountBookForm accountBookForm) {
+
+        accountBookForm.setId(id);
+        var account = toAccount(accountBookForm);
+        account.setId(id);
+
+        var previous = accountRepository.updateIfVersionMatches(account, accountBookForm.getVersion())
+                .orElseThrow(() -> accountRepository.existsById(id)
+                        ? new ObjectOptimisticLockingFailureException(Account.class, id)
+                        : new NoSuchElementException("No value present"));
+        ledgerTotalService.applyDelta(Math.subtractExact(account.getIncome(), previous.getIncome()),
+                Math.subtractExact(account.getExpense(), previous.getExpense()));
+        ledgerJournalService.recordUpdated(previous, account);
+        ledgerBalanceIndex.add(previous.getItemDate(), Math.negateExact(LedgerMath.net(previous.getIncome(), previous.getExpense())));
+        ledgerBalanceIndex.add(account.getItemDate(), LedgerMath.net(account.getIncome(), account.getExpense()));
+        ledgerRollupService.replace(previous, account);
+        applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.UPDATED, id));
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
     public Account getBySpecifiedId(long id) {
         return accountRepository.findById(id).orElseThrow();
     }
 
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NET_WORTH, allEntries = true)
     public void deleteBySpecifiedId(long id) {
-        accountRepository.deleteById(id);
+
+        var deleted = accountRepository.deleteAllByIdIn(List.of(id));
+        if (deleted.count() == 0) {
+            throw new NoSuchElementException("No value present");
+        }
+        ledgerTotalService.applyDelta(Math.negateExact(deleted.income()), Math.negateExact(deleted.expense()));
+        ledgerJournalService.recordDeleted(deleted.rows());
+        deleted.netByItemDate().forEach((itemDate, net) -> ledgerBalanceIndex.add(itemDate, Math.negateExact(net)));
+        ledgerRollupService.subtract(deleted.rows());
+        applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.DELETED, id));
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NET_WORTH, allEntries = true)
+    public int deleteByIds(Collection<Long> ids) {
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        return applyDeleted(accountRepository.deleteAllByIdIn(ids));
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NET_WORTH, allEntries = true)
+    public int deleteBetween(Date from, Date to) {
+        return applyDeleted(accountRepository.deleteAllByItemDateBetween(from, to));
+    }
+
+    private int applyDeleted(DeletedRows deleted) {
+
+        if (deleted.count() > 0) {
+            ledgerTotalService.applyDelta(Math.negateExact(deleted.income()), Math.negateExact(deleted.expense()));
+            ledgerJournalService.recordDeleted(deleted.rows());
+            ledgerBalanceIndex.add(deleted.netByItemDate().entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> Math.negateExact(entry.getValue()))));
+            ledgerRollupService.subtract(deleted.rows());
+            applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.DELETED, deleted.ids()));
+        }
+
+        return deleted.count();
     }
 
+    @Timed(value = "okozukai.service", histogram = true)
     public void getPageInfo(long id, AccountBookForm accountBookForm) {
 
-        var recordData = getBySpecifiedId(id);
+        var recordData = self.getBySpecifiedId(id);
 
         if (recordData.getExpense() == 0) {
             accountBookForm.setPrice(recordData.getIncome());
@@ -91,5 +362,6 @@ public class AccountBookService {
         accountBookForm.setItem(recordData.getItem());
         accountBookForm.setItemDate(recordData.getItemDate());
         accountBookForm.setNote(recordData.getNote());
+        accountBookForm.setVersion(recordData.getVersion());
     }
 }
@@ -0,0 +1,113 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.entity.ArchivedAccount;
+import com.example.okozukai.repository.AccountArchiveRepository;
+import com.example.okozukai.repository.AccountRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+@Service
+public class AccountExportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    private static final String CSV_HEADER = "id,itemDate,item,income,expense,note";
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AccountArchiveRepository accountArchiveRepository;
+
+    @Autowired
+    AccountArchiveService accountArchiveService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportTo(OutputStream outputStream, Format format) throws IOException {
+
+        var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+        }
+
+        try (var accounts = streamAllOrderByItemDate()) {
+            accounts.forEach(account -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsv(writer, account);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(account));
+                    }
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                entityManager.detach(account);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private Stream<Account> streamAllOrderByItemDate() {
+
+        var hot = accountRepository.streamAllOrderByItemDate();
+        if (!accountArchiveService.hasArchived()) {
+            return hot;
+        }
+        var archived = accountArchiveRepository.streamAllOrderByItemDate()
+                .peek(entityManager::detach)
+                .map(ArchivedAccount::toAccount);
+
+        return AccountArchiveService.mergeOrdered(hot, archived);
+    }
+
+    private void writeCsv(Writer writer, Account account) throws IOException {
+
+        writer.write(String.valueOf(account.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(account.getItemDate()));
+        writer.write(',');
+        writer.write(escapeCsv(account.getItem()));
+        writer.write(',');
+        writer.write(String.valueOf(account.getIncome()));
+        writer.write(',');
+        writer.write(String.valueOf(account.getExpense()));
+        writer.write(',');
+        writer.write(escapeCsv(account.getNote()));
+    }
+
+    static String escapeCsv(String value) {
+
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
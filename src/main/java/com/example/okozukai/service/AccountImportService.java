@@ -0,0 +1,240 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.config.CacheConfig;
+import com.example.okozukai.dto.ImportResult;
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.event.LedgerChangedEvent;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.repository.AccountRepository;
+import com.example.okozukai.util.LedgerMath;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Slf4j
+@Service
+public class AccountImportService {
+
+    private static final String HEADER_PREFIX = "priceType";
+
+    private static final int COLUMN_COUNT = 5;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    LedgerTotalService ledgerTotalService;
+
+    @Autowired
+    LedgerBalanceIndex ledgerBalanceIndex;
+
+    @Autowired
+    LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    LedgerJournalService ledgerJournalService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${okozukai.import.chunk-size}")
+    int chunkSize;
+
+    private final AtomicReference<ImportResult> progress = new AtomicReference<>();
+
+    private final AtomicBoolean importing = new AtomicBoolean();
+
+    public Optional<ImportResult> getProgress() {
+        return Optional.ofNullable(progress.get());
+    }
+
+    public ImportResult importCsv(InputStreamSource source) throws IOException {
+
+        // Progress describes a single run, so a second import is turned away rather than allowed to overwrite it.
+        if (!importing.compareAndSet(false, true)) {
+            throw new RejectedExecutionException("Another import is already running");
+        }
+        try {
+            return importRows(source);
+        } finally {
+            importing.set(false);
+        }
+    }
+
+    private ImportResult importRows(InputStreamSource source) throws IOException {
+
+        var startedAt = System.nanoTime();
+
+        // Parse the whole file once before the first commit, so a bad line fails the import with nothing written.
+        var totalRows = new long[1];
+        readRows(source, (lineNumber, accountBookForm) -> totalRows[0]++);
+
+        var result = new ImportResult(totalRows[0], 0, 0, 0, 0, false);
+        publishProgress(result, startedAt);
+
+        var chunk = new ArrayList<Account>(chunkSize);
+        var lastLine = new int[1];
+        readRows(source, (lineNumber, accountBookForm) -> {
+            chunk.add(AccountBookService.toAccount(accountBookForm));
+            lastLine[0] = lineNumber;
+            if (chunk.size() == chunkSize) {
+                commitChunk(chunk);
+                recordCommitted(result, chunk.size(), lineNumber, startedAt);
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            commitChunk(chunk);
+            recordCommitted(result, chunk.size(), lastLine[0], startedAt);
+        }
+
+        result.setFinished(true);
+        publishProgress(result, startedAt);
+        log.info("Import finished: {} rows in {} chunks, {} ms", result.getImportedRows(), result.getCommittedChunks(), result.getElapsedMillis());
+
+        return result;
+    }
+
+    private void recordCommitted(ImportResult result, int rows, int lastLine, long startedAt) {
+
+        result.setImportedRows(result.getImportedRows() + rows);
+        result.setCommittedChunks(result.getCommittedChunks() + 1);
+        result.setLastCommittedLine(lastLine);
+        publishProgress(result, startedAt);
+        log.info("Imported {} of {} rows ({} chunks committed, up to line {})",
+                result.getImportedRows(), result.getTotalRows(), result.getCommittedChunks(), result.getLastCommittedLine());
+    }
+
+    private void publishProgress(ImportResult result, long startedAt) {
+
+        result.setElapsedMillis((System.nanoTime() - startedAt) / 1_000_000);
+        progress.set(new ImportResult(result.getTotalRows(), result.getImportedRows(), result.getCommittedChunks(),
+                result.getLastCommittedLine(), result.getElapsedMillis(), result.isFinished()));
+    }
+
+    private static void readRows(InputStreamSource source, RowHandler handler) throws IOException {
+
+        try (var reader = new BufferedReader(new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1) {
+                    line = line.replace("\uFEFF", "");
+                    if (line.startsWith(HEADER_PREFIX)) {
+                        continue;
+                    }
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                handler.handle(lineNumber, parseLine(line, lineNumber));
+            }
+        }
+    }
+
+    private void commitChunk(List<Account> chunk) {
+
+        var income = LedgerMath.sum(chunk, Account::getIncome);
+        var expense = LedgerMath.sum(chunk, Account::getExpense);
+        var netByItemDate = LedgerMath.sumBy(chunk, Account::getItemDate, account -> LedgerMath.net(account.getIncome(), account.getExpense()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var lastAccountId = accountRepository.findMaxId();
+            accountRepository.batchInsert(chunk);
+            ledgerTotalService.applyDelta(income, expense);
+            ledgerJournalService.recordImported(lastAccountId);
+            ledgerBalanceIndex.add(netByItemDate);
+            ledgerRollupService.add(chunk);
+            cacheManager.getCache(CacheConfig.NET_WORTH).clear();
+            applicationEventPublisher.publishEvent(LedgerChangedEvent.imported(lastAccountId));
+        });
+    }
+
+    static AccountBookForm parseLine(String line, int lineNumber) {
+
+        var columns = splitCsv(line);
+        if (columns.size() != COLUMN_COUNT) {
+            throw new IllegalArgumentException("line " + lineNumber + ": expected " + COLUMN_COUNT + " columns but was " + columns.size());
+        }
+
+        var accountBookForm = new AccountBookForm();
+        try {
+            var priceType = columns.get(0).trim();
+            if (!priceType.equals("income") && !priceType.equals("expense")) {
+                throw new IllegalArgumentException("priceType must be income or expense: " + priceType);
+            }
+            accountBookForm.setPriceType(priceType);
+            accountBookForm.setItemDate(Date.valueOf(columns.get(1).trim()));
+            accountBookForm.setItem(columns.get(2));
+            accountBookForm.setPrice(Long.parseLong(columns.get(3).trim()));
+            accountBookForm.setNote(columns.get(4));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage(), e);
+        }
+
+        return accountBookForm;
+    }
+
+    static List<String> splitCsv(String line) {
+
+        var columns = new ArrayList<String>(COLUMN_COUNT);
+        var current = new StringBuilder();
+        var quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        columns.add(current.toString());
+
+        return columns;
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+
+        void handle(int lineNumber, AccountBookForm accountBookForm);
+
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.analytics.ColumnarLedgerStore;
+import com.example.okozukai.dto.ColumnarSnapshotResult;
+import com.example.okozukai.dto.ItemTotal;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class LedgerAnalyticsService {
+
+    @Autowired
+    ColumnarLedgerStore columnarLedgerStore;
+
+    @Timed(value = "okozukai.service", histogram = true)
+    public ColumnarSnapshotResult exportSnapshot() throws IOException {
+        return columnarLedgerStore.export();
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    public List<ItemTotal> getItemTotals(LocalDate from, LocalDate to) {
+        return columnarLedgerStore.getCurrent().sumByItemBetween(from, to);
+    }
+}
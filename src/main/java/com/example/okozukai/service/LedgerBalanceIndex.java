@@ -0,0 +1,215 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.LedgerTotal;
+import com.example.okozukai.repository.AccountArchiveRepository;
+import com.example.okozukai.repository.AccountRepository;
+import com.example.okozukai.repository.DailyNet;
+import com.example.okozukai.repository.LedgerTotalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+public class LedgerBalanceIndex {
+
+    private static final int PADDING_DAYS = 366;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AccountArchiveRepository accountArchiveRepository;
+
+    @Autowired
+    LedgerTotalRepository ledgerTotalRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicLong commitSequence = new AtomicLong();
+
+    private long rebuiltThrough;
+
+    private long baseDay;
+
+    private long[] daily = new long[0];
+
+    private long[] tree = new long[1];
+
+    public void rebuild() {
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Writers hold the total row until they commit and take their sequence number under it, so the sums read here
+            // contain exactly the writes numbered up to the sequence seen after locking, whenever their after-commit delta arrives.
+            ledgerTotalRepository.findByIdForUpdate(LedgerTotal.SINGLETON_ID);
+            var through = commitSequence.get();
+            var sums = new ArrayList<DailyNet>(accountRepository.sumByItemDate());
+            sums.addAll(accountArchiveRepository.sumByItemDate());
+            rebuild(sums, through);
+        });
+    }
+
+    public void rebuild(List<? extends DailyNet> sums) {
+        rebuild(sums, commitSequence.get());
+    }
+
+    private void rebuild(List<? extends DailyNet> sums, long through) {
+
+        var start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            rebuiltThrough = through;
+            daily = new long[0];
+            tree = new long[1];
+            for (var sum : sums) {
+                var day = sum.getItemDate().toLocalDate().toEpochDay();
+                ensureRange(day);
+                var index = (int) (day - baseDay);
+                daily[index] = Math.addExact(daily[index], sum.getNet());
+            }
+            buildTree();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Balance index rebuilt with {} days in {} ms", sums.size(), System.currentTimeMillis() - start);
+    }
+
+    public void add(Date itemDate, long net) {
+
+        if (itemDate != null && net != 0) {
+            add(Map.of(itemDate, net));
+        }
+    }
+
+    public void add(Map<Date, Long> netByItemDate) {
+
+        if (netByItemDate.isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                private long sequence;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    sequence = commitSequence.incrementAndGet();
+                }
+
+                @Override
+                public void afterCommit() {
+                    apply(sequence, netByItemDate);
+                }
+            });
+        } else {
+            apply(commitSequence.incrementAndGet(), netByItemDate);
+        }
+    }
+
+    public long balanceAsOf(LocalDate date) {
+
+        lock.readLock().lock();
+        try {
+            return prefix(date.toEpochDay());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long balanceBetween(LocalDate from, LocalDate to) {
+
+        if (to.isBefore(from)) {
+            return 0;
+        }
+
+        lock.readLock().lock();
+        try {
+            return Math.subtractExact(prefix(to.toEpochDay()), prefix(from.toEpochDay() - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(long sequence, Map<Date, Long> netByItemDate) {
+
+        lock.writeLock().lock();
+        try {
+            if (sequence <= rebuiltThrough) {
+                return;
+            }
+            netByItemDate.forEach((itemDate, net) -> {
+                var day = itemDate.toLocalDate().toEpochDay();
+                if (ensureRange(day)) {
+                    buildTree();
+                }
+                var index = (int) (day - baseDay);
+                daily[index] = Math.addExact(daily[index], net);
+                for (var i = index + 1; i < tree.length; i += i & -i) {
+                    tree[i] = Math.addExact(tree[i], net);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long prefix(long day) {
+
+        if (day < baseDay) {
+            return 0;
+        }
+
+        var sum = 0L;
+        for (var i = (int) Math.min(day - baseDay + 1, daily.length); i > 0; i -= i & -i) {
+            sum = Math.addExact(sum, tree[i]);
+        }
+        return sum;
+    }
+
+    private boolean ensureRange(long day) {
+
+        if (daily.length > 0 && day >= baseDay && day < baseDay + daily.length) {
+            return false;
+        }
+
+        var from = daily.length == 0 ? day - PADDING_DAYS : Math.min(baseDay, day - PADDING_DAYS);
+        var to = daily.length == 0 ? day + PADDING_DAYS : Math.max(baseDay + daily.length, day + PADDING_DAYS);
+        var grown = new long[Math.toIntExact(to - from)];
+        if (daily.length > 0) {
+            System.arraycopy(daily, 0, grown, (int) (baseDay - from), daily.length);
+        }
+        baseDay = from;
+        daily = grown;
+        return true;
+    }
+
+    private void buildTree() {
+
+        tree = new long[daily.length + 1];
+        for (var i = 1; i <= daily.length; i++) {
+            tree[i] = Math.addExact(tree[i], daily[i - 1]);
+            var parent = i + (i & -i);
+            if (parent <= daily.length) {
+                tree[parent] = Math.addExact(tree[parent], tree[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.dto.LedgerHistoryPoint;
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.entity.LedgerJournalEntry;
+import com.example.okozukai.entity.LedgerSnapshot;
+import com.example.okozukai.entity.LedgerTotal;
+import com.example.okozukai.event.LedgerChangedEvent;
+import com.example.okozukai.repository.LedgerJournalRepository;
+import com.example.okozukai.repository.LedgerPosition;
+import com.example.okozukai.repository.LedgerSnapshotRepository;
+import com.example.okozukai.repository.LedgerTotalRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class LedgerJournalService {
+
+    @Autowired
+    LedgerJournalRepository ledgerJournalRepository;
+
+    @Autowired
+    LedgerSnapshotRepository ledgerSnapshotRepository;
+
+    @Autowired
+    LedgerTotalRepository ledgerTotalRepository;
+
+    @Autowired
+    LedgerTotalService ledgerTotalService;
+
+    @Autowired
+    LedgerBalanceIndex ledgerBalanceIndex;
+
+    @Autowired
+    LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${okozukai.journal.snapshot-retention}")
+    int snapshotRetention;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRegistered(Collection<Account> accounts) {
+        append(accounts.stream().map(account -> toEntry(LedgerChangedEvent.Type.REGISTERED, account, 1)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpdated(Account previous, Account current) {
+        append(Stream.of(toEntry(LedgerChangedEvent.Type.UPDATED, previous, -1), toEntry(LedgerChangedEvent.Type.UPDATED, current, 1)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Collection<Account> rows) {
+        append(rows.stream().map(row -> toEntry(LedgerChangedEvent.Type.DELETED, row, -1)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordImported(long lastAccountIdBeforeImport) {
+        ledgerJournalRepository.appendImportedAfter(lastAccountIdBeforeImport);
+    }
+
+    @Scheduled(cron = "${okozukai.journal.snapshot-cron}")
+    @Transactional
+    public LedgerSnapshot takeSnapshot() {
+
+        var start = System.currentTimeMillis();
+        ledgerTotalRepository.findByIdForUpdate(LedgerTotal.SINGLETON_ID);
+        var journalSeq = ledgerJournalRepository.findMaxSeq();
+        var base = ledgerSnapshotRepository.findFirstByOrderByIdDesc();
+        if (base.isPresent() && base.get().getJournalSeq() == journalSeq) {
+            return base.get();
+        }
+
+        var position = base.map(snapshot -> new LedgerPosition(snapshot.getId(), snapshot.getJournalSeq(), journalSeq))
+                .orElseGet(() -> new LedgerPosition(0, 0, journalSeq));
+        var sum = ledgerSnapshotRepository.sumAt(position);
+        var snapshot = saveSnapshot(journalSeq, sum.getIncome(), sum.getExpense());
+        ledgerSnapshotRepository.insertLines(snapshot.getId(), position);
+        var pruned = ledgerSnapshotRepository.deleteAllExceptGenesisAndLatest(snapshotRetention);
+        applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.SNAPSHOT_TAKEN, List.of()));
+
+        log.info("Ledger snapshot {} taken at journal seq {} in {} ms ({} old snapshots pruned)",
+                snapshot.getId(), journalSeq, System.currentTimeMillis() - start, pruned);
+
+        return snapshot;
+    }
+
+    @Transactional
+    public void initialize() {
+
+        if (ledgerSnapshotRepository.findFirstByOrderByIdAsc().isEmpty()) {
+            takeGenesisSnapshot();
+        }
+    }
+
+    @Transactional
+    public void reset() {
+
+        ledgerJournalRepository.truncate();
+        ledgerSnapshotRepository.truncate();
+        takeGenesisSnapshot();
+    }
+
+    @Transactional
+    public void rebuildDerivedState() {
+
+        var start = System.currentTimeMillis();
+        ledgerTotalRepository.findByIdForUpdate(LedgerTotal.SINGLETON_ID);
+        var position = currentPosition();
+        ledgerTotalService.reconcile(() -> ledgerSnapshotRepository.sumAt(position));
+        ledgerBalanceIndex.rebuild(ledgerSnapshotRepository.sumByItemDateAt(position));
+        ledgerRollupService.rebuild(position);
+
+        log.info("Derived ledger state rebuilt from snapshot {} and {} journal entries in {} ms",
+                position.snapshotId(), position.journalSeq() - position.snapshotSeq(), System.currentTimeMillis() - start);
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional(readOnly = true)
+    public LedgerHistoryPoint getStateAt(LocalDateTime at) {
+
+        var genesis = ledgerSnapshotRepository.findFirstByOrderByIdAsc().orElseThrow();
+        if (Timestamp.valueOf(at).before(genesis.getTakenAt())) {
+            throw new NoSuchElementException("No journal before " + genesis.getTakenAt());
+        }
+
+        var journalSeq = Math.max(genesis.getJournalSeq(), ledgerJournalRepository.findMaxSeqRecordedUpTo(Timestamp.valueOf(at)));
+        var sum = ledgerSnapshotRepository.sumAt(positionAt(journalSeq));
+
+        return new LedgerHistoryPoint(at, journalSeq, sum.getIncome(), sum.getExpense(), sum.getNet());
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional(readOnly = true)
+    public List<LedgerJournalEntry> getAccountHistory(long accountId) {
+        return ledgerJournalRepository.findByAccountIdOrderBySeq(accountId);
+    }
+
+    LedgerPosition currentPosition() {
+        return positionAt(ledgerJournalRepository.findMaxSeq());
+    }
+
+    LedgerPosition positionAt(long journalSeq) {
+        return ledgerSnapshotRepository.findFirstByJournalSeqLessThanEqualOrderByIdDesc(journalSeq)
+                .map(snapshot -> new LedgerPosition(snapshot.getId(), snapshot.getJournalSeq(), journalSeq))
+                .orElseGet(() -> new LedgerPosition(0, 0, journalSeq));
+    }
+
+    private void takeGenesisSnapshot() {
+
+        var journalSeq = ledgerJournalRepository.findMaxSeq();
+        var snapshot = saveSnapshot(journalSeq, 0, 0);
+        ledgerSnapshotRepository.insertLinesFromAccounts(snapshot.getId());
+
+        var sum = ledgerSnapshotRepository.sumAt(new LedgerPosition(snapshot.getId(), journalSeq, journalSeq));
+        snapshot.setTotalIncome(sum.getIncome());
+        snapshot.setTotalExpense(sum.getExpense());
+    }
+
+    private LedgerSnapshot saveSnapshot(long journalSeq, long totalIncome, long totalExpense) {
+
+        var snapshot = new LedgerSnapshot();
+        snapshot.setJournalSeq(journalSeq);
+        snapshot.setTakenAt(new Timestamp(System.currentTimeMillis()));
+        snapshot.setTotalIncome(totalIncome);
+        snapshot.setTotalExpense(totalExpense);
+
+        return ledgerSnapshotRepository.save(snapshot);
+    }
+
+    private void append(Stream<LedgerJournalEntry> entries) {
+
+        var list = entries.toList();
+        if (!list.isEmpty()) {
+            ledgerJournalRepository.append(list);
+        }
+    }
+
+    private static LedgerJournalEntry toEntry(LedgerChangedEvent.Type changeType, Account account, int sign) {
+
+        var entry = new LedgerJournalEntry();
+        entry.setChangeType(changeType);
+        entry.setAccountId(account.getId());
+        entry.setItemDate(account.getItemDate());
+        entry.setItem(account.getItem());
+        entry.setIncome(Math.multiplyExact(sign, account.getIncome()));
+        entry.setExpense(Math.multiplyExact(sign, account.getExpense()));
+        entry.setNote(account.getNote());
+        entry.setRecordedAt(new Timestamp(System.currentTimeMillis()));
+
+        return entry;
+    }
+}
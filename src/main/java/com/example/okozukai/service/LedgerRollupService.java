@@ -0,0 +1,109 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.entity.LedgerTotal;
+import com.example.okozukai.event.LedgerChangedEvent;
+import com.example.okozukai.entity.MonthlyItemRollup;
+import com.example.okozukai.entity.MonthlyRollup;
+import com.example.okozukai.repository.LedgerPosition;
+import com.example.okozukai.repository.LedgerTotalRepository;
+import com.example.okozukai.repository.MonthlyItemRollupRepository;
+import com.example.okozukai.repository.MonthlyRollupRepository;
+import com.example.okozukai.repository.RollupDelta;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class LedgerRollupService {
+
+    @Autowired
+    MonthlyRollupRepository monthlyRollupRepository;
+
+    @Autowired
+    MonthlyItemRollupRepository monthlyItemRollupRepository;
+
+    @Autowired
+    LedgerTotalRepository ledgerTotalRepository;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Collection<Account> accounts) {
+        applyDeltas(toDeltas(accounts, 1));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void subtract(Collection<Account> accounts) {
+        applyDeltas(toDeltas(accounts, -1));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replace(Account previous, Account current) {
+        applyDeltas(Stream.concat(toDeltas(List.of(previous), -1), toDeltas(List.of(current), 1)));
+    }
+
+    @Transactional
+    public void rebuild() {
+
+        var start = System.currentTimeMillis();
+        // Writers apply their rollup deltas while holding the total row, so none can land between the delete and the insert.
+        ledgerTotalRepository.findByIdForUpdate(LedgerTotal.SINGLETON_ID);
+        monthlyRollupRepository.rebuild();
+        applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.RECONCILED, List.of()));
+        log.info("Rollup tables rebuilt in {} ms", System.currentTimeMillis() - start);
+    }
+
+    @Transactional
+    public void rebuild(LedgerPosition position) {
+
+        var start = System.currentTimeMillis();
+        ledgerTotalRepository.findByIdForUpdate(LedgerTotal.SINGLETON_ID);
+        monthlyRollupRepository.rebuild(position);
+        applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.RECONCILED, List.of()));
+        log.info("Rollup tables rebuilt from snapshot {} and journal up to {} in {} ms", position.snapshotId(), position.journalSeq(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional(readOnly = true)
+    public List<MonthlyRollup> getMonthlyReport(int year) {
+        return monthlyRollupRepository.findMonths(year * 100 + 1, year * 100 + 12);
+    }
+
+    @Timed(value = "okozukai.service", histogram = true)
+    @Transactional(readOnly = true)
+    public List<MonthlyItemRollup> getItemReport(int year, int month) {
+        return monthlyItemRollupRepository.findItems(year * 100 + month);
+    }
+
+    private void applyDeltas(Stream<RollupDelta> deltaStream) {
+
+        var deltas = deltaStream.toList();
+        if (!deltas.isEmpty()) {
+            monthlyRollupRepository.addDeltas(deltas);
+        }
+    }
+
+    private static Stream<RollupDelta> toDeltas(Collection<Account> accounts, int sign) {
+
+        return accounts.stream()
+                .filter(account -> Objects.nonNull(account.getItemDate()))
+                .map(account -> {
+                    var date = account.getItemDate().toLocalDate();
+                    return new RollupDelta(date.getYear() * 100 + date.getMonthValue(), Objects.toString(account.getItem(), ""),
+                            Math.multiplyExact(sign, account.getIncome()), Math.multiplyExact(sign, account.getExpense()));
+                });
+    }
+}
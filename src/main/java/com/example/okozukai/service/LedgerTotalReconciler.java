@@ -0,0 +1,36 @@
+package com.example.okozukai.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LedgerTotalReconciler {
+
+    @Autowired
+    LedgerTotalService ledgerTotalService;
+
+    @Autowired
+    LedgerBalanceIndex ledgerBalanceIndex;
+
+    @Autowired
+    LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    LedgerJournalService ledgerJournalService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        ledgerJournalService.initialize();
+        ledgerJournalService.rebuildDerivedState();
+    }
+
+    @Scheduled(cron = "${okozukai.ledger-total.reconcile-cron}")
+    public void reconcile() {
+        ledgerTotalService.reconcile();
+        ledgerBalanceIndex.rebuild();
+        ledgerRollupService.rebuild();
+    }
+}
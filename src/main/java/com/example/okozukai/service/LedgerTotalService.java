@@ -0,0 +1,97 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.config.CacheConfig;
+import com.example.okozukai.entity.LedgerTotal;
+import com.example.okozukai.event.LedgerChangedEvent;
+import com.example.okozukai.repository.AccountRepository;
+import com.example.okozukai.repository.LedgerSum;
+import com.example.okozukai.repository.LedgerTotalRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@Slf4j
+@Service
+public class LedgerTotalService {
+
+    @Autowired
+    LedgerTotalRepository ledgerTotalRepository;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Transactional(readOnly = true)
+    public LedgerTotal getLedgerTotal() {
+        return ledgerTotalRepository.findById(LedgerTotal.SINGLETON_ID).orElseGet(this::recompute);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(long income, long expense) {
+
+        // Always lock the total row, even for a zero delta, so writers append to the journal in commit order.
+        if (ledgerTotalRepository.addDelta(LedgerTotal.SINGLETON_ID, income, expense) == 0) {
+            reconcile();
+        }
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NET_WORTH, allEntries = true)
+    public boolean reconcile() {
+        return reconcile(this::sumAll);
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.NET_WORTH, allEntries = true)
+    public boolean reconcile(Supplier<LedgerSum> expectedSum) {
+
+        // The sum is taken under the row lock, so no write can commit between computing it and overwriting the total with it.
+        var total = ledgerTotalRepository.findByIdForUpdate(LedgerTotal.SINGLETON_ID).orElseGet(() -> {
+            var created = new LedgerTotal();
+            created.setId(LedgerTotal.SINGLETON_ID);
+            return created;
+        });
+        var expected = toLedgerTotal(expectedSum.get());
+
+        var consistent = total.getTotalIncome() == expected.getTotalIncome()
+                && total.getTotalExpense() == expected.getTotalExpense();
+        if (!consistent) {
+            log.warn("Ledger total drifted: stored income={} expense={}, recomputed income={} expense={}",
+                    total.getTotalIncome(), total.getTotalExpense(), expected.getTotalIncome(), expected.getTotalExpense());
+            total.setTotalIncome(expected.getTotalIncome());
+            total.setTotalExpense(expected.getTotalExpense());
+            applicationEventPublisher.publishEvent(new LedgerChangedEvent(LedgerChangedEvent.Type.RECONCILED, List.of()));
+        }
+        ledgerTotalRepository.save(total);
+
+        return consistent;
+    }
+
+    private LedgerTotal recompute() {
+        return toLedgerTotal(sumAll());
+    }
+
+    private LedgerSum sumAll() {
+        // One statement, so an archive move cannot land between reading the hot and the archived rows.
+        return accountRepository.sumAllIncludingArchive();
+    }
+
+    private static LedgerTotal toLedgerTotal(LedgerSum ledgerSum) {
+
+        var total = new LedgerTotal();
+        total.setId(LedgerTotal.SINGLETON_ID);
+        total.setTotalIncome(ledgerSum.getIncome());
+        total.setTotalExpense(ledgerSum.getExpense());
+
+        return total;
+    }
+}
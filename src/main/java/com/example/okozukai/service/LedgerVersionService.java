@@ -0,0 +1,29 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.event.LedgerChangedEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class LedgerVersionService {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public String getETag() {
+        return "\"" + version.get() + "\"";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLedgerChanged(LedgerChangedEvent event) {
+
+        if (event.type() != LedgerChangedEvent.Type.SNAPSHOT_TAKEN) {
+            version.incrementAndGet();
+        }
+    }
+}
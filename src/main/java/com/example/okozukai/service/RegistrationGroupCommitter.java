@@ -0,0 +1,256 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.form.AccountBookForm;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class RegistrationGroupCommitter implements MeterBinder {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final AccountBookService accountBookService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<PendingRegistration> queue;
+
+    private final int maxBatchSize;
+
+    private final Duration linger;
+
+    private final Duration offerTimeout;
+
+    private final Duration commitTimeout;
+
+    private final Thread writer;
+
+    private final LongAdder committedBatches = new LongAdder();
+
+    private final LongAdder committedRegistrations = new LongAdder();
+
+    private volatile boolean running = true;
+
+    public RegistrationGroupCommitter(AccountBookService accountBookService, TransactionTemplate transactionTemplate, int queueCapacity,
+                                      int maxBatchSize, Duration linger, Duration offerTimeout, Duration commitTimeout) {
+        this.accountBookService = accountBookService;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.linger = linger;
+        this.offerTimeout = offerTimeout;
+        this.commitTimeout = commitTimeout;
+        this.writer = new Thread(this::writeLoop, "registration-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public Account register(AccountBookForm accountBookForm) {
+
+        var pending = enqueue(accountBookForm);
+        try {
+            try {
+                return pending.result().get(commitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (pending.claim()) {
+                    throw new RejectedExecutionException("Registration was not picked up within " + commitTimeout, e);
+                }
+                // The writer has started committing it, so a rejection could make the client register it twice.
+                return pending.result().get(commitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the registration to commit", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Registration is still committing after " + commitTimeout.multipliedBy(2), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public CompletableFuture<Account> submit(AccountBookForm accountBookForm) {
+        return enqueue(accountBookForm).result();
+    }
+
+    public void shutdown() throws InterruptedException {
+
+        running = false;
+        writer.join();
+        rejectQueued("Registration writer is shut down");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        Gauge.builder("okozukai.registration.queue.size", queue, BlockingQueue::size).register(registry);
+        FunctionCounter.builder("okozukai.registration.batches", committedBatches, LongAdder::sum).register(registry);
+        FunctionCounter.builder("okozukai.registration.committed", committedRegistrations, LongAdder::sum).register(registry);
+    }
+
+    private PendingRegistration enqueue(AccountBookForm accountBookForm) {
+
+        // Rejected here, on the caller's thread, so one bad form cannot roll back a batch shared with other callers.
+        validate(accountBookForm);
+        if (!running) {
+            throw new RejectedExecutionException("Registration writer is shut down");
+        }
+
+        var pending = new PendingRegistration(accountBookForm, new CompletableFuture<>(), new AtomicBoolean());
+        try {
+            if (!queue.offer(pending, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("Registration queue is full (" + queue.size() + " pending)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in the registration queue", e);
+        }
+        // The writer may have seen an empty queue and exited between the check above and the offer.
+        if (!running && queue.remove(pending)) {
+            throw new RejectedExecutionException("Registration writer is shut down");
+        }
+
+        return pending;
+    }
+
+    static void validate(AccountBookForm accountBookForm) {
+
+        var priceType = accountBookForm.getPriceType();
+        if (!"income".equals(priceType) && !"expense".equals(priceType)) {
+            throw new IllegalArgumentException("priceType must be income or expense: " + priceType);
+        }
+    }
+
+    private void rejectQueued(String reason) {
+
+        var remaining = new ArrayList<PendingRegistration>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.result().completeExceptionally(new RejectedExecutionException(reason)));
+    }
+
+    private void writeLoop() {
+
+        var batch = new ArrayList<PendingRegistration>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                var first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+
+                var deadline = System.nanoTime() + linger.toNanos();
+                while (batch.size() < maxBatchSize) {
+                    var next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                }
+
+                // Registrations whose caller gave up while they were queued are dropped; the rest can no longer be withdrawn.
+                batch.removeIf(pending -> !pending.claim());
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+            batch.forEach(pending -> pending.result().completeExceptionally(new RejectedExecutionException("Registration writer was interrupted")));
+            rejectQueued("Registration writer was interrupted");
+        }
+    }
+
+    private void flush(List<PendingRegistration> batch) {
+
+        // Only a rolled back transaction is handed back; anything else has already completed the registrations.
+        var failure = commit(batch);
+        if (failure == null) {
+            return;
+        }
+        if (batch.size() == 1) {
+            batch.get(0).result().completeExceptionally(failure);
+            return;
+        }
+        log.warn("Group commit of {} registrations rolled back; committing them one by one", batch.size(), failure);
+        batch.forEach(pending -> {
+            var alone = commit(List.of(pending));
+            if (alone != null) {
+                pending.result().completeExceptionally(alone);
+            }
+        });
+    }
+
+    private RuntimeException commit(List<PendingRegistration> batch) {
+
+        var completion = new AtomicInteger(TransactionSynchronization.STATUS_ROLLED_BACK);
+        var accounts = new AtomicReference<List<Account>>();
+        try {
+            transactionTemplate.executeWithoutResult(transaction -> {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        completion.set(status);
+                    }
+                });
+                accounts.set(accountBookService.registerAll(batch.stream().map(PendingRegistration::form).toList()));
+            });
+        } catch (RuntimeException e) {
+            switch (completion.get()) {
+                case TransactionSynchronization.STATUS_ROLLED_BACK -> {
+                    return e;
+                }
+                case TransactionSynchronization.STATUS_COMMITTED ->
+                        log.warn("Group commit of {} registrations committed but an after-commit step failed", batch.size(), e);
+                default -> {
+                    // Retrying could register the rows twice, so the callers get the failure as it is.
+                    batch.forEach(pending -> pending.result().completeExceptionally(e));
+                    return null;
+                }
+            }
+        }
+
+        for (var i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(accounts.get().get(i));
+        }
+        committedBatches.increment();
+        committedRegistrations.add(batch.size());
+
+        return null;
+    }
+
+    private record PendingRegistration(AccountBookForm form, CompletableFuture<Account> result, AtomicBoolean claimed) {
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.okozukai.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntToLongFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+public final class LedgerMath {
+
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private LedgerMath() {
+    }
+
+    public static long net(long income, long expense) {
+        return Math.subtractExact(income, expense);
+    }
+
+    public static <T> long sum(Collection<T> items, ToLongFunction<? super T> amount) {
+
+        var stream = items.size() >= PARALLEL_THRESHOLD ? items.parallelStream() : items.stream();
+
+        return stream.mapToLong(amount).reduce(0L, Math::addExact);
+    }
+
+    public static <T, K> Map<K, Long> sumBy(Collection<T> items, Function<? super T, ? extends K> key, ToLongFunction<? super T> amount) {
+
+        if (items.size() >= PARALLEL_THRESHOLD) {
+            return items.parallelStream().collect(Collectors.groupingByConcurrent(key,
+                    Collectors.reducing(0L, item -> amount.applyAsLong(item), Math::addExact)));
+        }
+
+        return items.stream().collect(Collectors.groupingBy(key,
+                Collectors.reducing(0L, item -> amount.applyAsLong(item), Math::addExact)));
+    }
+
+    public static long[] runningTotals(long opening, int size, IntToLongFunction amountAt) {
+
+        var totals = new long[size];
+        if (size == 0) {
+            return totals;
+        }
+
+        if (size >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSetAll(totals, amountAt);
+            totals[0] = Math.addExact(opening, totals[0]);
+            Arrays.parallelPrefix(totals, Math::addExact);
+        } else {
+            var total = opening;
+            for (var i = 0; i < size; i++) {
+                total = Math.addExact(total, amountAt.applyAsLong(i));
+                totals[i] = total;
+            }
+        }
+
+        return totals;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.okozukai.analytics;
+
+import com.example.okozukai.dto.ItemTotal;
+import com.example.okozukai.service.AccountArchiveService;
+import com.example.okozukai.service.LedgerAnalyticsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "okozukai.analytics.snapshot-path=target/analytics/ledger-columns-test.bin")
+class ColumnarLedgerStoreTest {
+
+    @Autowired
+    ColumnarLedgerStore columnarLedgerStore;
+
+    @Autowired
+    LedgerAnalyticsService ledgerAnalyticsService;
+
+    @Autowired
+    AccountArchiveService accountArchiveService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${okozukai.analytics.snapshot-path}")
+    Path snapshotPath;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("全件が日付順の列形式で書き出され、メモリマップから同じ値が読み出される")
+    void testExportAndReadBack() throws IOException {
+
+        var result = ledgerAnalyticsService.exportSnapshot();
+        var snapshot = columnarLedgerStore.getCurrent();
+
+        assertEquals(6, result.getRows(), "全件が書き出されることの確認");
+        assertEquals(6, result.getDistinctItems(), "項目が辞書に1件ずつ登録されることの確認");
+        assertEquals(Files.size(snapshotPath), result.getBytes(), "書き出したファイルサイズの確認");
+        assertEquals(List.of(LocalDate.of(2022, 1, 20), LocalDate.of(2022, 5, 3), LocalDate.of(2022, 5, 3), LocalDate.of(2022, 5, 3),
+                        LocalDate.of(2022, 7, 20), LocalDate.of(2022, 10, 8)),
+                IntStream.range(0, snapshot.getRowCount()).mapToObj(snapshot::itemDate).toList(), "日付の列が日付順に読み出されることの確認");
+        assertEquals(List.of("T-Shirts", "iPhone", "MacBook", "iPad", "Green Curry", "Sushi"),
+                IntStream.range(0, snapshot.getRowCount()).mapToObj(snapshot::item).toList(), "項目の列が辞書から復元されることの確認");
+        assertEquals(List.of(1000L, 130000L, 0L, 0L, 500L, 1000L),
+                IntStream.range(0, snapshot.getRowCount()).mapToObj(snapshot::income).toList(), "収入の列が読み出されることの確認");
+        assertEquals(List.of(1500L, 140000L, 180000L, 140000L, 900L, 700L),
+                IntStream.range(0, snapshot.getRowCount()).mapToObj(snapshot::expense).toList(), "支出の列が読み出されることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("期間を指定した項目ごとの集計は、日付の範囲に含まれる行だけを集計する")
+    void testItemTotalsBetween() throws IOException {
+
+        jdbcTemplate.update("INSERT INTO account (id, item_date, item, income, expense, note) VALUES (7, '2022-05-31', 'iPhone', 0, 20000, 'Case')");
+        ledgerAnalyticsService.exportSnapshot();
+
+        var actual = ledgerAnalyticsService.getItemTotals(LocalDate.of(2022, 5, 1), LocalDate.of(2022, 5, 31));
+
+        assertEquals(List.of(new ItemTotal("MacBook", 0, 180000), new ItemTotal("iPad", 0, 140000), new ItemTotal("iPhone", 130000, 160000)),
+                actual, "期間内の行が項目ごとに集計されることの確認");
+        assertEquals(List.of(), ledgerAnalyticsService.getItemTotals(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31)), "期間内に行が無い時は空になることの確認");
+        assertEquals(-330600 - 20000, ledgerAnalyticsService.getItemTotals(LocalDate.of(1900, 1, 1), LocalDate.of(9999, 12, 31)).stream()
+                .mapToLong(ItemTotal::getNet).sum(), "全期間の集計が収支の合計と一致することの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("アーカイブしたデータと、日付や項目が空のデータも書き出される")
+    void testExportIncludesArchivedAndNullValues() throws IOException {
+
+        accountArchiveService.archiveBefore(LocalDate.of(2022, 6, 1));
+        jdbcTemplate.update("INSERT INTO account (id, item_date, item, income, expense, note) VALUES (7, NULL, NULL, 300, 0, '')");
+        ledgerAnalyticsService.exportSnapshot();
+        var snapshot = columnarLedgerStore.getCurrent();
+
+        assertEquals(7, snapshot.getRowCount(), "アーカイブしたデータも書き出されることの確認");
+        assertNull(snapshot.itemDate(0), "日付が空の行が先頭に並ぶことの確認");
+        assertEquals("", snapshot.item(0), "項目が空の行は空文字として書き出されることの確認");
+        assertEquals(1, snapshot.firstRowOnOrAfter(LocalDate.of(2000, 1, 1)), "日付が空の行は期間の検索に含まれないことの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("書き出し直しても、開いている古いスナップショットは読み続けられる")
+    void testReExportKeepsOpenSnapshotReadable() throws IOException {
+
+        ledgerAnalyticsService.exportSnapshot();
+        var previous = columnarLedgerStore.getCurrent();
+        jdbcTemplate.update("DELETE FROM account");
+        ledgerAnalyticsService.exportSnapshot();
+
+        assertEquals(0, columnarLedgerStore.getCurrent().getRowCount(), "新しいスナップショットに切り替わることの確認");
+        assertEquals(-330600, IntStream.range(0, previous.getRowCount()).mapToLong(row -> previous.income(row) - previous.expense(row)).sum(),
+                "古いスナップショットの内容が読み続けられることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("起動時には前回のプロセスが残したスナップショットを使わず、現在のDBから書き出し直す")
+    void testOpenRewritesSnapshotLeftByEarlierProcess() throws IOException {
+
+        ledgerAnalyticsService.exportSnapshot();
+        jdbcTemplate.update("DELETE FROM account WHERE id > 2");
+
+        columnarLedgerStore.open();
+
+        assertEquals(2, columnarLedgerStore.getCurrent().getRowCount(), "残っていたファイルではなく現在のDBの内容が読み出されることの確認");
+    }
+
+    @Test
+    @DisplayName("列形式のスナップショットではないファイルは開けない")
+    void testOpenRejectsOtherFiles() throws IOException {
+
+        var other = Files.createTempFile("ledger-columns", ".bin");
+        try {
+            Files.writeString(other, "priceType,itemDate,item,price,note\nincome,2022-03-01,Salary,300000,March\nexpense,2022-03-02,Lunch,900,\n");
+            assertThrows(IOException.class, () -> ColumnarLedgerSnapshot.open(other), "形式の異なるファイルが拒否されることの確認");
+        } finally {
+            Files.delete(other);
+        }
+    }
+}
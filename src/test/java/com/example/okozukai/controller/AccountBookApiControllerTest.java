@@ -0,0 +1,192 @@
+package com.example.okozukai.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AccountBookApiControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("一覧をJSONで取得でき、同じETagで再取得すると304が返る")
+    void testGetListWithETag() throws Exception {
+
+        var eTag = mockMvc.perform(get("/api/account-book"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.ledgerPage.entries.length()").value(6))
+                .andExpect(jsonPath("$.ledgerPage.entries[0].id").value(5))
+                .andExpect(jsonPath("$.netWorth").value(-330600))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/account-book").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("登録、更新、削除のたびにETagが変わり、古いETagでは304にならない")
+    void testETagChangesOnWrite() throws Exception {
+
+        var initialETag = mockMvc.perform(get("/api/account-book/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item").value("T-Shirts"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        var registeredETag = mockMvc.perform(post("/api/account-book")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priceType\":\"income\",\"itemDate\":\"2022-03-01\",\"item\":\"testItem\",\"price\":1000,\"note\":\"testNote\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/account-book/4"))
+                .andExpect(jsonPath("$.income").value(1000))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(initialETag, registeredETag, "登録後にETagが変わることの確認");
+
+        mockMvc.perform(get("/api/account-book/1").header(HttpHeaders.IF_NONE_MATCH, initialETag))
+                .andExpect(status().isOk());
+
+        var updatedETag = mockMvc.perform(put("/api/account-book/4")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priceType\":\"expense\",\"itemDate\":\"2022-03-02\",\"item\":\"updated\",\"price\":500,\"note\":\"\",\"version\":0}"))
+                .andExpect(status().isNoContent())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(registeredETag, updatedETag, "更新後にETagが変わることの確認");
+
+        mockMvc.perform(get("/api/account-book/4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item").value("updated"))
+                .andExpect(jsonPath("$.expense").value(500));
+
+        var deletedETag = mockMvc.perform(delete("/api/account-book/4"))
+                .andExpect(status().isNoContent())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(updatedETag, deletedETag, "削除後にETagが変わることの確認");
+
+        mockMvc.perform(get("/api/account-book/4"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("複数件をまとめて登録でき、登録した全件が返る")
+    void testRegisterBatch() throws Exception {
+
+        mockMvc.perform(post("/api/account-book/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"priceType\":\"income\",\"itemDate\":\"2022-03-01\",\"item\":\"Salary\",\"price\":1000,\"note\":\"\"},"
+                                + "{\"priceType\":\"expense\",\"itemDate\":\"2022-03-02\",\"item\":\"Lunch\",\"price\":1200,\"note\":\"\"}]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[1].expense").value(1200));
+
+        mockMvc.perform(post("/api/account-book/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/account-book"))
+                .andExpect(jsonPath("$.netWorth").value(-10_900 + 1000 - 1200));
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("バージョンを指定せずに更新すると428、古いバージョンで更新すると409が返り、最新のバージョンでは更新できる")
+    void testUpdateConflict() throws Exception {
+
+        mockMvc.perform(get("/api/account-book/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0));
+
+        var body = "{\"priceType\":\"income\",\"itemDate\":\"2022-03-01\",\"item\":\"edited\",\"price\":100,\"note\":\"\",\"version\":%d}";
+
+        mockMvc.perform(put("/api/account-book/2").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priceType\":\"income\",\"itemDate\":\"2022-03-01\",\"item\":\"overwritten\",\"price\":100,\"note\":\"\"}"))
+                .andExpect(status().isPreconditionRequired());
+        mockMvc.perform(get("/api/account-book/2"))
+                .andExpect(jsonPath("$.item").value("iPhone"));
+
+        mockMvc.perform(put("/api/account-book/2").contentType(MediaType.APPLICATION_JSON).content(body.formatted(0)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(put("/api/account-book/2").contentType(MediaType.APPLICATION_JSON).content(body.formatted(0)))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(put("/api/account-book/2").contentType(MediaType.APPLICATION_JSON).content(body.formatted(1)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/account-book/2"))
+                .andExpect(jsonPath("$.version").value(2));
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("IDの指定または期間の指定で一括削除でき、削除件数が返る")
+    void testBulkDelete() throws Exception {
+
+        mockMvc.perform(delete("/api/account-book").param("ids", "1", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedRows").value(2));
+
+        mockMvc.perform(delete("/api/account-book").param("from", "2022-05-01").param("to", "2022-05-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deletedRows").value(2));
+
+        mockMvc.perform(delete("/api/account-book"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/account-book"))
+                .andExpect(jsonPath("$.ledgerPage.entries.length()").value(2))
+                .andExpect(jsonPath("$.netWorth").value(1000 + 500 - 700 - 900));
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("日付時点の残高と期間の残高がJSONで取得できる")
+    void testGetBalance() throws Exception {
+
+        mockMvc.perform(get("/api/account-book/balance").param("asOf", "2022-01-20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(-500));
+
+        mockMvc.perform(get("/api/account-book/balance").param("from", "2022-07-01").param("to", "2022-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2022-07-01"))
+                .andExpect(jsonPath("$.balance").value(-400 + 300));
+
+        mockMvc.perform(get("/api/account-book/balance"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("月次レポートと内容別レポートがJSONで取得できる")
+    void testGetReport() throws Exception {
+
+        mockMvc.perform(get("/api/account-book/report").param("year", "2022"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[1].yearMonth").value(202205))
+                .andExpect(jsonPath("$[1].net").value(-330000));
+
+        mockMvc.perform(get("/api/account-book/report/items").param("year", "2022").param("month", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].item").value("MacBook"))
+                .andExpect(jsonPath("$[0].expense").value(180000));
+    }
+}
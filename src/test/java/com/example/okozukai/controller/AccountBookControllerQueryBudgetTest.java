@@ -0,0 +1,193 @@
+package com.example.okozukai.controller;
+
+import com.example.okozukai.support.QueryBudget;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "okozukai.ledger.page-size=" + AccountBookControllerQueryBudgetTest.PAGE_SIZE)
+@AutoConfigureMockMvc
+class AccountBookControllerQueryBudgetTest {
+
+    static final int PAGE_SIZE = 2;
+
+    private static final int PAGE_WITH_LOOKAHEAD = PAGE_SIZE + 1;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("GET /account-book: 1ページ分(先読み1件を含む)と残高の1件だけを読み込む")
+    void testTopPageBudget() throws Exception {
+
+        QueryBudget.atMost(3, PAGE_WITH_LOOKAHEAD + 1).perform(mockMvc, get("/account-book"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("GET /account-book (次ページ): 1ページ分(先読み1件を含む)と残高の1件だけを読み込む")
+    void testNextPageBudget() throws Exception {
+
+        QueryBudget.atMost(3, PAGE_WITH_LOOKAHEAD + 1).perform(mockMvc, get("/account-book")
+                        .param("cursorDate", "2022-05-03").param("cursorId", "4").param("direction", "next"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("GET /account-book (期間・時点残高付き): 残高の計算でSQLを追加しない")
+    void testTopPageWithBalancesBudget() throws Exception {
+
+        QueryBudget.atMost(3, PAGE_WITH_LOOKAHEAD + 1).perform(mockMvc, get("/account-book")
+                        .param("from", "2022-05-01").param("to", "2022-05-31").param("asOf", "2022-06-30"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("GET /account-book/new: SQLを発行しない")
+    void testRegisterPageBudget() throws Exception {
+
+        QueryBudget.atMost(0, 0).perform(mockMvc, get("/account-book/new"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("POST /account-book/new: 登録、集計の更新とジャーナルへの追記だけを行う")
+    void testRegisterBudget() throws Exception {
+
+        QueryBudget.atMost(6, 0).perform(mockMvc, post("/account-book/new")
+                        .param("priceType", "income").param("itemDate", "2022-03-01").param("item", "testItem")
+                        .param("price", "1000").param("note", "testNote"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("POST /account-book/new/batch: 複数件をまとめて登録しても集計の更新は1回だけ行う")
+    void testBatchRegisterBudget() throws Exception {
+
+        QueryBudget.atMost(8, 0).perform(mockMvc, post("/account-book/new/batch")
+                        .param("entries[0].priceType", "income").param("entries[0].itemDate", "2022-03-01").param("entries[0].item", "Salary")
+                        .param("entries[0].price", "1000").param("entries[0].note", "")
+                        .param("entries[1].priceType", "expense").param("entries[1].itemDate", "2022-03-01").param("entries[1].item", "Coffee")
+                        .param("entries[1].price", "300").param("entries[1].note", "")
+                        .param("entries[2].priceType", "expense").param("entries[2].itemDate", "2022-03-02").param("entries[2].item", "Lunch")
+                        .param("entries[2].price", "1200").param("entries[2].note", "")
+                        .param("entries[3].itemDate", "").param("entries[3].item", "").param("entries[3].price", "0").param("entries[3].note", ""))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("GET /account-book/update/{id}: 対象の1件だけを読み込む")
+    void testUpdatePageBudget() throws Exception {
+
+        QueryBudget.atMost(1, 1).perform(mockMvc, get("/account-book/update/2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("PUT /account-book/update/{id}: エンティティを読み込まずに更新する")
+    void testUpdateBudget() throws Exception {
+
+        QueryBudget.atMost(6, 0).perform(mockMvc, put("/account-book/update/2")
+                        .param("priceType", "expense").param("itemDate", "2022-05-04").param("item", "iPhone")
+                        .param("price", "120000").param("note", "iPhone 13").param("version", "0"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("GET /account-book/delete/{id}: 対象の1件だけを読み込む")
+    void testDeletePageBudget() throws Exception {
+
+        QueryBudget.atMost(1, 1).perform(mockMvc, get("/account-book/delete/2"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("DELETE /account-book/delete/{id}: エンティティを読み込まずに削除する")
+    void testDeleteBudget() throws Exception {
+
+        QueryBudget.atMost(5, 0).perform(mockMvc, delete("/account-book/delete/2"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("DELETE /account-book/delete: 件数によらず一定のSQLで一括削除する")
+    void testDeleteSelectedBudget() throws Exception {
+
+        QueryBudget.atMost(5, 0).perform(mockMvc, delete("/account-book/delete").param("ids", "1", "2", "4", "6"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("DELETE /account-book/delete-range: 件数によらず一定のSQLで期間削除する")
+    void testDeleteRangeBudget() throws Exception {
+
+        QueryBudget.atMost(5, 0).perform(mockMvc, delete("/account-book/delete-range")
+                        .param("from", "2022-01-01").param("to", "2022-06-30"))
+                .andExpect(status().is3xxRedirection());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("GET /account-book/report: 明細を読まずに集計テーブルの行だけを読み込む")
+    void testReportBudget() throws Exception {
+
+        QueryBudget.atMost(2, 7).perform(mockMvc, get("/account-book/report").param("year", "2022").param("month", "5"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("GET /account-book/search: 1ページ分のエンティティだけを読み込む")
+    void testSearchBudget() throws Exception {
+
+        QueryBudget.atMost(1, PAGE_SIZE).perform(mockMvc, get("/account-book/search").param("q", "pro"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("GET /account-book/export: 1回のSQLで全件を1件ずつ読み込んで出力する")
+    void testExportBudget() throws Exception {
+
+        QueryBudget.atMost(1, 6).perform(mockMvc, get("/account-book/export"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("POST /account-book/import: エンティティを読み込まずに取り込む")
+    void testImportBudget() throws Exception {
+
+        var csv = """
+                priceType,itemDate,item,price,note
+                income,2022-03-01,Salary,300000,March
+                expense,2022-03-02,Coffee,1200,
+                """;
+
+        QueryBudget.atMost(7, 0).perform(mockMvc, multipart("/account-book/import")
+                        .file(new MockMultipartFile("file", "import.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.okozukai.controller;
+
+import com.example.okozukai.service.AccountArchiveService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AccountBookControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    AccountArchiveService accountArchiveService;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("アーカイブしたデータは一覧に表示されるが更新と削除の操作は表示されず、直接開くと404が返る")
+    void testArchivedEntriesHaveNoWriteControls() throws Exception {
+
+        accountArchiveService.archiveBefore(LocalDate.of(2022, 6, 1));
+
+        mockMvc.perform(get("/account-book"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("T-Shirts")))
+                .andExpect(content().string(not(containsString("/account-book/update/1\""))))
+                .andExpect(content().string(not(containsString("form=\"bulk-delete\" value=\"1\""))))
+                .andExpect(content().string(containsString("/account-book/update/3\"")))
+                .andExpect(content().string(containsString("form=\"bulk-delete\" value=\"3\"")));
+
+        mockMvc.perform(get("/account-book/update/1"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/account-book/delete/1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("出力形式は大文字小文字を区別せずに指定でき、未対応の形式を指定すると400が返る")
+    void testExportFormat() throws Exception {
+
+        mockMvc.perform(get("/account-book/export").param("format", "NDJSON"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"));
+        mockMvc.perform(get("/account-book/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.okozukai.controller;
+
+import com.example.okozukai.metrics.RequestQueryMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class MetricsEndpointTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("一覧画面を表示した後、Prometheus形式のエンドポイントにリクエスト、サービス、Hibernate、HikariCPのメトリクスが出力される")
+    void testPrometheusEndpoint() throws Exception {
+
+        mockMvc.perform(get("/account-book")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("okozukai_service_seconds_bucket")))
+                .andExpect(content().string(containsString("okozukai_request_statements_count{application=\"okozukai\",method=\"GET\",uri=\"/account-book\"")))
+                .andExpect(content().string(containsString("okozukai_request_entity_loads")))
+                .andExpect(content().string(containsString("hibernate_statements_total")))
+                .andExpect(content().string(containsString("hikaricp_connections")));
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("JdbcTemplateで発行したSQLと、ストリーミング出力の別スレッドで発行したSQLもリクエストごとのSQL発行数に数えられる")
+    void testRequestStatementsIncludeJdbcAndStreaming() throws Exception {
+
+        var export = mockMvc.perform(get("/account-book/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+        var exportStatements = RequestQueryMetricsInterceptor.getQueryCount(export.getRequest()).statements();
+
+        var deleteResult = mockMvc.perform(delete("/api/account-book").param("ids", "1", "2")).andExpect(status().isOk()).andReturn();
+        var deleteStatements = RequestQueryMetricsInterceptor.getQueryCount(deleteResult.getRequest()).statements();
+
+        var exportSummary = meterRegistry.get("okozukai.request.statements").tag("uri", "/account-book/export").summary();
+        assertEquals(1, exportSummary.count(), "ストリーミング出力が1リクエストとして記録されることの確認");
+        assertEquals(exportStatements, (long) exportSummary.totalAmount(), "別スレッドで発行した出力のSQLが数えられることの確認");
+        assertEquals(deleteStatements, (long) meterRegistry.get("okozukai.request.statements").tag("method", "DELETE").tag("uri", "/api/account-book").summary().totalAmount(),
+                "JdbcTemplateで発行した一括削除のSQLが数えられることの確認");
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.okozukai.datasource;
+
+import com.example.okozukai.config.ReplicaDataSourceConfig;
+import com.example.okozukai.event.LedgerChangedEvent;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.form.LedgerCursorForm;
+import com.example.okozukai.repository.AccountRepository;
+import com.example.okozukai.service.AccountBookService;
+import com.example.okozukai.service.LedgerJournalService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "okozukai.datasource.replica.enabled=true")
+class ReplicaRoutingDataSourceTest {
+
+    private static final String INSERT_SQL = "INSERT INTO ACCOUNT(item_date, item, income, expense, note) VALUES('2022-02-05', 'Coffee', 0, 300, 'Starbucks')";
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    LocalReplicaSynchronizer localReplicaSynchronizer;
+
+    @Autowired
+    LedgerJournalService ledgerJournalService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier(ReplicaDataSourceConfig.REPLICA_DATA_SOURCE)
+    DataSource replicaDataSource;
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("読み取り専用のサービスメソッドはレプリカ、登録はプライマリに振り分けられる")
+    void testReadOnlyServiceMethodRoutedToReplica() {
+
+        var replicaBefore = replicaRoutingDataSource.getRoutedConnections(ReplicaRoutingDataSource.Target.REPLICA);
+        var primaryBefore = replicaRoutingDataSource.getRoutedConnections(ReplicaRoutingDataSource.Target.PRIMARY);
+
+        assertEquals(3, accountBookService.getLedgerPage(new LedgerCursorForm()).getEntries().size(), "レプリカから一覧が取得できることの確認");
+        assertTrue(replicaRoutingDataSource.getRoutedConnections(ReplicaRoutingDataSource.Target.REPLICA) > replicaBefore, "一覧の取得がレプリカに振り分けられることの確認");
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("income");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(1000);
+        accountBookForm.setNote("testNote");
+        accountBookService.registerInfo(accountBookForm);
+
+        assertTrue(replicaRoutingDataSource.getRoutedConnections(ReplicaRoutingDataSource.Target.PRIMARY) > primaryBefore, "登録がプライマリに振り分けられることの確認");
+        assertEquals(4, accountBookService.getLedgerPage(new LedgerCursorForm()).getEntries().size(), "登録がコミット後にレプリカへ反映されることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("レプリカに反映されていない書き込みはレプリカからは見えず、リポジトリからはプライマリの最新データが見える")
+    void testReplicaServesReadOnlyServiceMethodOnly() {
+
+        jdbcTemplate.update(INSERT_SQL);
+
+        assertEquals(3, accountBookService.getLedgerPage(new LedgerCursorForm()).getEntries().size(), "読み取り専用のサービスメソッドはレプリカから取得されることの確認");
+        assertEquals(4, accountRepository.findAll().size(), "リポジトリを直接呼んだ場合はプライマリから取得されることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("レプリカの遅れが許容範囲を超えている間は読み取りがプライマリに振り分けられる")
+    void testStaleReplicaFallsBackToPrimary() {
+
+        jdbcTemplate.update(INSERT_SQL);
+        localReplicaSynchronizer.markBehind();
+
+        assertFalse(localReplicaSynchronizer.isReplicaAvailable(), "遅れているレプリカが利用不可となることの確認");
+        assertEquals(4, accountBookService.getLedgerPage(new LedgerCursorForm()).getEntries().size(), "遅れている間はプライマリから取得されることの確認");
+
+        localReplicaSynchronizer.resync();
+        assertTrue(localReplicaSynchronizer.isReplicaAvailable(), "再同期後にレプリカが利用可能となることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("取込中の行より大きいIDの登録が先に反映されても、取込の行が全てレプリカに反映される")
+    void testImportChunkInterleavedWithRegistration() throws InterruptedException {
+
+        jdbcTemplate.update("INSERT INTO ACCOUNT(id, item_date, item, income, expense, note) VALUES(4, '2022-03-02', 'Udon', 0, 500, 'Kitsune'), "
+                + "(5, '2022-03-03', 'Soba', 0, 600, 'Tanuki')");
+        jdbcTemplate.update("INSERT INTO ACCOUNT(id, item_date, item, income, expense, note) VALUES(6, '2022-03-04', 'Ramen', 0, 900, 'Tonkotsu')");
+
+        localReplicaSynchronizer.onLedgerChanged(new LedgerChangedEvent(LedgerChangedEvent.Type.REGISTERED, 6L));
+        localReplicaSynchronizer.onLedgerChanged(LedgerChangedEvent.imported(3));
+        localReplicaSynchronizer.onLedgerChanged(LedgerChangedEvent.imported(3));
+        awaitReplica();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), new JdbcTemplate(replicaDataSource).queryForList("SELECT ID FROM ACCOUNT ORDER BY ID", Long.class),
+                "登録より小さいIDの取込データもレプリカに反映され、繰り返し反映しても重複しないことの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("プライマリで削除された古いスナップショットはレプリカからも削除される")
+    void testPrunedSnapshotsRemovedFromReplica() throws InterruptedException {
+
+        for (var i = 0; i < 5; i++) {
+            var accountBookForm = new AccountBookForm();
+            accountBookForm.setPriceType("income");
+            accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+            accountBookForm.setItem("testItem" + i);
+            accountBookForm.setPrice(1000);
+            accountBookForm.setNote("");
+            accountBookService.registerInfo(accountBookForm);
+            ledgerJournalService.takeSnapshot();
+        }
+        awaitReplica();
+
+        var replica = new JdbcTemplate(replicaDataSource);
+        var sql = "SELECT DISTINCT SNAPSHOT_ID FROM LEDGER_SNAPSHOT_LINE ORDER BY SNAPSHOT_ID";
+        assertEquals(jdbcTemplate.queryForList("SELECT ID FROM LEDGER_SNAPSHOT ORDER BY ID", Long.class),
+                replica.queryForList("SELECT ID FROM LEDGER_SNAPSHOT ORDER BY ID", Long.class), "レプリカのスナップショットがプライマリと一致することの確認");
+        assertEquals(jdbcTemplate.queryForList(sql, Long.class), replica.queryForList(sql, Long.class), "削除されたスナップショットの明細がレプリカに残らないことの確認");
+    }
+
+    private void awaitReplica() throws InterruptedException {
+
+        var deadline = System.nanoTime() + 10_000_000_000L;
+        while (!localReplicaSynchronizer.isReplicaAvailable()) {
+            assertTrue(System.nanoTime() < deadline, "レプリカへの反映が完了することの確認");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.sql.Date;
@@ -267,4 +268,78 @@ class AccountRepositoryTest {
         assertEquals("Uniqlo T-Shirt", diffFromActual.get(0).getNote(), "与えられたIDに紐ずいたデータの備考が削除されている事を確認");
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("先頭ページの取得で、日付の降順（日付が重なる場合はIDの降順）に指定件数だけ取得されることを確認")
+    void testFindLatest() {
+
+        var actual = accountRepository.findLatest(PageRequest.of(0, 3));
+
+        assertEquals(3, actual.size(), "指定した件数だけ取得されていることの確認");
+        assertEquals(5L, actual.get(0).getId(), "最も新しい日付のデータが先頭であることの確認");
+        assertEquals(3L, actual.get(1).getId(), "2番目に新しい日付のデータが2件目であることの確認");
+        assertEquals(6L, actual.get(2).getId(), "日付が重なる場合にIDの降順で並んでいることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("カーソルより古いデータが、日付の降順（日付が重なる場合はIDの降順）で取得されることを確認")
+    void testFindOlderThan() {
+
+        var actual = accountRepository.findOlderThan(Date.valueOf("2022-05-03"), 6L, PageRequest.of(0, 3));
+
+        assertEquals(3, actual.size(), "カーソルより古いデータが指定件数だけ取得されていることの確認");
+        assertEquals(4L, actual.get(0).getId(), "カーソルと同じ日付でIDが小さいデータが先頭であることの確認");
+        assertEquals(2L, actual.get(1).getId(), "カーソルと同じ日付でIDが小さいデータが続くことの確認");
+        assertEquals(1L, actual.get(2).getId(), "カーソルより古い日付のデータが続くことの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("カーソルより新しいデータが、カーソルに近い順に取得されることを確認")
+    void testFindNewerThan() {
+
+        var actual = accountRepository.findNewerThan(Date.valueOf("2022-05-03"), 4L, PageRequest.of(0, 2));
+
+        assertEquals(2, actual.size(), "カーソルより新しいデータが指定件数だけ取得されていることの確認");
+        assertEquals(6L, actual.get(0).getId(), "カーソルと同じ日付でIDが大きいデータが先頭であることの確認");
+        assertEquals(3L, actual.get(1).getId(), "カーソルより新しい日付のデータが続くことの確認");
+    }
+
+    @Test
+    @Sql("/test-getTotalPrice.sql")
+    @DisplayName("全データの収入と支出の合計がDB側で集計されることを確認")
+    void testSumAll() {
+
+        var actual = accountRepository.sumAll();
+
+        assertEquals(3500, actual.getIncome(), "収入の合計が取得できていることの確認");
+        assertEquals(3499, actual.getExpense(), "支出の合計が取得できていることの確認");
+        assertEquals(1, actual.getNet(), "収支の差額が計算できていることの確認");
+    }
+
+    @Test
+    @Sql("/test-getTotalPrice.sql")
+    @DisplayName("アーカイブしたデータも含めた収入と支出の合計が1つのクエリで集計されることを確認")
+    void testSumAllIncludingArchive() {
+
+        var moved = accountRepository.moveToArchive(Date.valueOf("9999-12-31"), 1);
+        var actual = accountRepository.sumAllIncludingArchive();
+
+        assertEquals(1, moved.count(), "1件がアーカイブに移されていることの確認");
+        assertEquals(3500, actual.getIncome(), "アーカイブしたデータも収入の合計に含まれていることの確認");
+        assertEquals(3499, actual.getExpense(), "アーカイブしたデータも支出の合計に含まれていることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-not-data-exist.sql")
+    @DisplayName("DBにデータが存在しない時、収入と支出の合計が0になることを確認")
+    void testSumAllWhenDataNotExistInDB() {
+
+        var actual = accountRepository.sumAll();
+
+        assertEquals(0, actual.getIncome(), "データがない時、収入の合計が0であることの確認");
+        assertEquals(0, actual.getExpense(), "データがない時、支出の合計が0であることの確認");
+    }
+}
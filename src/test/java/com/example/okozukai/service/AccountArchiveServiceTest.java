@@ -0,0 +1,207 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.dto.LedgerPage;
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.entity.MonthlyRollup;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.form.LedgerCursorForm;
+import com.example.okozukai.repository.AccountArchiveRepository;
+import com.example.okozukai.repository.AccountRepository;
+import com.example.okozukai.search.AccountSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"okozukai.ledger.page-size=2", "okozukai.archive.chunk-size=3"})
+class AccountArchiveServiceTest {
+
+    @Autowired
+    AccountArchiveService accountArchiveService;
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountExportService accountExportService;
+
+    @Autowired
+    LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    LedgerTotalReconciler ledgerTotalReconciler;
+
+    @Autowired
+    AccountSearchIndex accountSearchIndex;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    AccountArchiveRepository accountArchiveRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("基準日より前のデータだけがアーカイブへ移動し、一覧、集計、検索、出力の結果は移動前と変わらない")
+    void testArchivedEntriesAreStillListed() throws IOException {
+
+        var pagesBefore = walkPages();
+        var allBefore = accountBookService.getFindAll();
+        var exportBefore = export();
+
+        var archived = accountArchiveService.archiveBefore(LocalDate.of(2022, 6, 1));
+
+        assertEquals(4, archived, "基準日より前のデータが全て移動することの確認");
+        assertEquals(List.of(3L, 5L), accountRepository.findAll().stream().map(Account::getId).sorted().toList(), "基準日以降のデータが残ることの確認");
+        assertEquals(List.of(1L, 2L, 4L, 6L), accountArchiveRepository.findAll().stream().map(archivedAccount -> archivedAccount.getId()).sorted().toList(),
+                "移動したデータが元のIDのままアーカイブされることの確認");
+
+        assertEquals(pagesBefore, walkPages(), "ページ送りの一覧と累計残高が移動前と一致することの確認");
+        assertEquals(ids(allBefore), ids(accountBookService.getFindAll()), "全件の一覧が移動前と一致することの確認");
+        assertEquals(runningBalances(allBefore), runningBalances(accountBookService.getFindAll()), "全件の累計残高が移動前と一致することの確認");
+        assertEquals(exportBefore, export(), "出力したデータが移動前と一致することの確認");
+        assertEquals(-330600, accountBookService.getTotalPrice(), "収支の合計金額が変わらないことの確認");
+        assertEquals(-330000, accountBookService.getTotalPriceBetween(Date.valueOf("2022-05-01"), Date.valueOf("2022-05-31")), "期間の収支が変わらないことの確認");
+        assertEquals(List.of(2L), ids(accountBookService.searchEntries("iPhone", 0).getEntries()), "アーカイブしたデータも検索できることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("アーカイブ後に古い日付で登録したデータも、アーカイブ済みのデータと日付順に並んで一覧に表示される")
+    void testHotEntryOlderThanCutoffIsMerged() {
+
+        accountArchiveService.archiveBefore(LocalDate.of(2022, 2, 4));
+        var registered = accountBookService.registerInfo(newForm("income", "2022-02-03", "Refund", 20000));
+
+        var entries = walkPages().stream().flatMap(List::stream).toList();
+        assertEquals(List.of(3L, registered.getId(), 2L, 1L), entries.stream().map(Entry::id).toList(), "アーカイブ済みのデータと日付順に並ぶことの確認");
+        assertEquals(List.of(9100L, 9500L, -10500L, -500L), entries.stream().map(Entry::runningBalance).toList(), "アーカイブ済みのデータを含めた累計残高の確認");
+
+        assertEquals(1, accountArchiveService.archiveBefore(LocalDate.of(2022, 2, 4)), "次の移動で基準日より前のデータが移動することの確認");
+        assertEquals(entries, walkPages().stream().flatMap(List::stream).toList(), "移動後も一覧と累計残高が変わらないことの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("全件からの再集計はアーカイブしたデータも含めて行われる")
+    void testFullRebuildIncludesArchive() {
+
+        accountArchiveService.archiveBefore(LocalDate.of(2022, 6, 1));
+        jdbcTemplate.update("UPDATE ledger_total SET total_income = 0, total_expense = 0");
+        jdbcTemplate.update("DELETE FROM monthly_rollup");
+
+        ledgerTotalReconciler.reconcile();
+        accountSearchIndex.rebuild();
+
+        assertEquals(-330600, accountBookService.getTotalPrice(), "アーカイブしたデータも合計金額に含まれることの確認");
+        assertEquals(-330600, accountBookService.getBalanceAsOf(Date.valueOf("2022-12-31")), "アーカイブしたデータも残高に含まれることの確認");
+        assertEquals(-330000, ledgerRollupService.getMonthlyReport(2022).stream().filter(month -> month.getYearMonth() == 202205)
+                .mapToLong(MonthlyRollup::getNet).sum(), "アーカイブしたデータも月ごとの集計に含まれることの確認");
+        assertEquals(List.of(4L), ids(accountBookService.searchEntries("MacBook", 0).getEntries()), "アーカイブしたデータも検索できることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("アーカイブしたデータは読み取り専用で、更新できない")
+    void testArchivedEntriesAreReadOnly() {
+
+        accountArchiveService.archiveBefore(LocalDate.of(2022, 6, 1));
+
+        var accountBookForm = newForm("expense", "2022-01-21", "T-Shirts", 2000);
+        assertThrows(NoSuchElementException.class, () -> accountBookService.updateInfo(1L, accountBookForm), "アーカイブしたデータは更新できないことの確認");
+        assertEquals(-330600, accountBookService.getTotalPrice(), "合計金額が変わらないことの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("定期実行では今年と前年より前のデータが全てアーカイブされる")
+    void testScheduledArchiveKeepsRecentYears() {
+
+        var archived = accountArchiveService.archive();
+
+        assertEquals(6, archived, "今年と前年より前のデータが全て移動することの確認");
+        assertEquals(0, accountRepository.count(), "通常のテーブルにデータが残らないことの確認");
+        assertEquals(List.of(5L, 3L), ids(accountBookService.getLedgerPage(new LedgerCursorForm()).getEntries()), "アーカイブから最新のページが取得されることの確認");
+    }
+
+    private List<List<Entry>> walkPages() {
+
+        var pages = new ArrayList<List<Entry>>();
+        var page = accountBookService.getLedgerPage(new LedgerCursorForm());
+        pages.add(entries(page));
+        while (page.isHasNext()) {
+            page = accountBookService.getLedgerPage(cursor(LedgerCursorForm.NEXT, page.getLast()));
+            pages.add(entries(page));
+        }
+
+        var backwards = new ArrayList<List<Entry>>();
+        backwards.add(entries(page));
+        while (page.isHasPrevious()) {
+            page = accountBookService.getLedgerPage(cursor(LedgerCursorForm.PREVIOUS, page.getFirst()));
+            backwards.add(0, entries(page));
+        }
+        assertEquals(pages, backwards, "前ページへ戻った時も同じ一覧が取得されることの確認");
+
+        return pages;
+    }
+
+    private String export() throws IOException {
+
+        var outputStream = new ByteArrayOutputStream();
+        accountExportService.exportTo(outputStream, AccountExportService.Format.CSV);
+
+        return outputStream.toString();
+    }
+
+    private static LedgerCursorForm cursor(String direction, Account account) {
+
+        var cursor = new LedgerCursorForm();
+        cursor.setDirection(direction);
+        cursor.setCursorDate(account.getItemDate());
+        cursor.setCursorId(account.getId());
+
+        return cursor;
+    }
+
+    private static List<Entry> entries(LedgerPage page) {
+        return page.getEntries().stream().map(account -> new Entry(account.getId(), account.getRunningBalance())).toList();
+    }
+
+    private static List<Long> ids(List<Account> accounts) {
+        return accounts.stream().map(Account::getId).toList();
+    }
+
+    private static List<Long> runningBalances(List<Account> accounts) {
+        return accounts.stream().map(Account::getRunningBalance).toList();
+    }
+
+    private static AccountBookForm newForm(String priceType, String itemDate, String item, long price) {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType(priceType);
+        accountBookForm.setItemDate(Date.valueOf(itemDate));
+        accountBookForm.setItem(item);
+        accountBookForm.setPrice(price);
+        accountBookForm.setNote("");
+
+        return accountBookForm;
+    }
+
+    private record Entry(long id, Long runningBalance) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.config.CacheConfig;
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AccountBookServiceCacheTest {
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("残高は2回目以降キャッシュから取得され、登録時にキャッシュが破棄される")
+    void testNetWorthCacheEvictedWhenRegisterInfo() {
+
+        var statsBefore = nativeCache(CacheConfig.NET_WORTH).stats();
+
+        var firstNetWorth = accountBookService.getTotalPrice();
+        assertEquals(firstNetWorth, accountBookService.getTotalPrice(), "2回目の残高取得がキャッシュから返されることの確認");
+        var stats = nativeCache(CacheConfig.NET_WORTH).stats().minus(statsBefore);
+        assertEquals(1, stats.hitCount(), "残高のキャッシュヒット数が記録されていることの確認");
+        assertEquals(1, stats.missCount(), "残高のキャッシュミス数が記録されていることの確認");
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("income");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(1000);
+        accountBookForm.setNote("testNote");
+        accountBookService.registerInfo(accountBookForm);
+
+        assertEquals(4, accountBookService.getFindAll().size(), "登録後に最新の一覧が取得されることの確認");
+        assertEquals(firstNetWorth + 1000, accountBookService.getTotalPrice(), "登録後にキャッシュが破棄され、最新の残高が取得されることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("指定したIDのデータは2次キャッシュから返され、更新時にそのIDのキャッシュだけが破棄される")
+    void testAccountCacheEvictedWhenUpdateInfo() {
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        accountBookService.getBySpecifiedId(1L);
+        accountBookService.getBySpecifiedId(2L);
+        var hitsBefore = statistics.getSecondLevelCacheHitCount();
+        accountBookService.getBySpecifiedId(1L);
+        assertEquals(hitsBefore + 1, statistics.getSecondLevelCacheHitCount(), "2回目の取得が2次キャッシュから返されることの確認");
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("expense");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(2000);
+        accountBookForm.setNote("testNote");
+        accountBookService.updateInfo(1L, accountBookForm);
+
+        var actual = accountBookService.getBySpecifiedId(1L);
+        assertEquals("testItem", actual.getItem(), "更新後にキャッシュが破棄され、最新のデータが取得されることの確認");
+        assertEquals(2000, actual.getExpense(), "更新後にキャッシュが破棄され、最新のデータが取得されることの確認");
+        assertTrue(entityManagerFactory.getCache().contains(Account.class, 2L), "更新していないIDのキャッシュは残っていることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("削除時に削除したIDと残高のキャッシュが破棄される")
+    void testCacheEvictedWhenDeleteBySpecifiedId() {
+
+        accountBookService.getBySpecifiedId(1L);
+        assertEquals(3, accountBookService.getFindAll().size(), "削除前の一覧の件数の確認");
+
+        accountBookService.deleteBySpecifiedId(1L);
+
+        assertFalse(entityManagerFactory.getCache().contains(Account.class, 1L), "削除したIDのキャッシュが破棄されていることの確認");
+        assertEquals(2, accountBookService.getFindAll().size(), "削除後に最新の一覧が取得されることの確認");
+        assertEquals(accountRepository.sumAll().getNet(), accountBookService.getTotalPrice(), "削除後にキャッシュが破棄され、最新の残高が取得されることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("IDで取得したデータは2次キャッシュから返され、更新後は最新のデータが取得される")
+    void testSecondLevelCacheRefreshedWhenUpdateInfo() {
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        accountRepository.findById(1L);
+        var hitsBefore = statistics.getSecondLevelCacheHitCount();
+        accountRepository.findById(1L);
+        assertEquals(hitsBefore + 1, statistics.getSecondLevelCacheHitCount(), "2回目の取得が2次キャッシュから返されることの確認");
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("expense");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(2000);
+        accountBookForm.setNote("testNote");
+        accountBookService.updateInfo(1L, accountBookForm);
+
+        var actual = accountRepository.findById(1L).orElseThrow();
+        assertEquals("testItem", actual.getItem(), "更新後に2次キャッシュが破棄され、最新のデータが取得されることの確認");
+        assertEquals(1, actual.getVersion(), "更新後に2次キャッシュが破棄され、最新のバージョンが取得されることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("一覧のクエリ結果はクエリキャッシュから返され、一括削除後は最新の結果が取得される")
+    void testQueryCacheRefreshedWhenDeleteByIds() {
+
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        accountRepository.findLatest(PageRequest.of(0, 10));
+        var hitsBefore = statistics.getQueryCacheHitCount();
+        assertEquals(3, accountRepository.findLatest(PageRequest.of(0, 10)).size(), "キャッシュされた一覧の件数の確認");
+        assertEquals(hitsBefore + 1, statistics.getQueryCacheHitCount(), "2回目の一覧取得がクエリキャッシュから返されることの確認");
+
+        accountBookService.deleteByIds(List.of(1L, 2L));
+
+        assertEquals(1, accountRepository.findLatest(PageRequest.of(0, 10)).size(), "一括削除後にクエリキャッシュが破棄され、最新の一覧が取得されることの確認");
+        assertTrue(accountRepository.findById(1L).isEmpty(), "一括削除後に2次キャッシュが破棄されていることの確認");
+    }
+
+    private Cache<?, ?> nativeCache(String name) {
+        var cache = ((TransactionAwareCacheDecorator) cacheManager.getCache(name)).getTargetCache();
+        return (Cache<?, ?>) cache.getNativeCache();
+    }
+}
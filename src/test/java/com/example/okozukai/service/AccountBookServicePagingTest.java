@@ -0,0 +1,93 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.form.LedgerCursorForm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.sql.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "okozukai.ledger.page-size=4")
+class AccountBookServicePagingTest {
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("カーソルを指定しない時、最新のページが取得され次ページが存在する")
+    void testGetLedgerPageWithoutCursor() {
+
+        var actual = accountBookService.getLedgerPage(new LedgerCursorForm());
+
+        assertEquals(List.of(5L, 3L, 6L, 4L), ids(actual.getEntries()), "最新のデータからページサイズ分取得されていることの確認");
+        assertTrue(actual.isHasNext(), "次ページが存在することの確認");
+        assertFalse(actual.isHasPrevious(), "先頭ページには前ページが存在しないことの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("次ページのカーソルを指定した時、カーソルより古いデータが取得される")
+    void testGetLedgerPageWithNextCursor() {
+
+        var cursor = new LedgerCursorForm();
+        cursor.setDirection(LedgerCursorForm.NEXT);
+        cursor.setCursorDate(Date.valueOf("2022-05-03"));
+        cursor.setCursorId(4L);
+
+        var actual = accountBookService.getLedgerPage(cursor);
+
+        assertEquals(List.of(2L, 1L), ids(actual.getEntries()), "カーソルより古いデータが取得されていることの確認");
+        assertFalse(actual.isHasNext(), "最終ページには次ページが存在しないことの確認");
+        assertTrue(actual.isHasPrevious(), "前ページが存在することの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("前ページのカーソルを指定した時、カーソルより新しいデータが日付の降順で取得される")
+    void testGetLedgerPageWithPreviousCursor() {
+
+        var cursor = new LedgerCursorForm();
+        cursor.setDirection(LedgerCursorForm.PREVIOUS);
+        cursor.setCursorDate(Date.valueOf("2022-05-03"));
+        cursor.setCursorId(2L);
+
+        var actual = accountBookService.getLedgerPage(cursor);
+
+        assertEquals(List.of(5L, 3L, 6L, 4L), ids(actual.getEntries()), "カーソルより新しいデータが降順で取得されていることの確認");
+        assertTrue(actual.isHasNext(), "次ページが存在することの確認");
+        assertFalse(actual.isHasPrevious(), "先頭ページまで戻った時は前ページが存在しないことの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("各ページの行に、そのデータまでの累計残高がセットされ、一覧全体の累計残高と一致する")
+    void testGetLedgerPageRunningBalance() {
+
+        var firstPage = accountBookService.getLedgerPage(new LedgerCursorForm());
+        assertEquals(List.of(-330600L, -330900L, -330500L, -190500L), runningBalances(firstPage.getEntries()), "先頭ページの累計残高の確認");
+
+        var cursor = new LedgerCursorForm();
+        cursor.setDirection(LedgerCursorForm.NEXT);
+        cursor.setCursorDate(firstPage.getLast().getItemDate());
+        cursor.setCursorId(firstPage.getLast().getId());
+        var secondPage = accountBookService.getLedgerPage(cursor);
+        assertEquals(List.of(-10500L, -500L), runningBalances(secondPage.getEntries()), "同じ日付のデータの途中から始まるページでも累計残高が正しいことの確認");
+
+        assertEquals(List.of(-330600L, -330900L, -330500L, -190500L, -10500L, -500L), runningBalances(accountBookService.getFindAll()), "一覧全体の累計残高の確認");
+    }
+
+    private List<Long> runningBalances(List<Account> accounts) {
+        return accounts.stream().map(Account::getRunningBalance).toList();
+    }
+
+    private List<Long> ids(List<Account> accounts) {
+        return accounts.stream().map(Account::getId).toList();
+    }
+}
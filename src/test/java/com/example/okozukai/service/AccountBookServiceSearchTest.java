@@ -0,0 +1,112 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.event.LedgerChangedEvent;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.search.AccountSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "okozukai.ledger.page-size=2")
+class AccountBookServiceSearchTest {
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountImportService accountImportService;
+
+    @Autowired
+    AccountSearchIndex accountSearchIndex;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("内容と備考のどちらかに前方一致する単語を含むデータが、IDの降順で取得される")
+    void testSearchEntriesByPrefix() {
+
+        assertEquals(List.of(1L), ids(accountBookService.searchEntries("uniq", 0).getEntries()), "備考の単語に前方一致するデータが取得されることの確認");
+        assertEquals(List.of(6L, 2L), ids(accountBookService.searchEntries("ip", 0).getEntries()), "内容の単語に前方一致するデータがIDの降順で取得されることの確認");
+        assertEquals(List.of(2L), ids(accountBookService.searchEntries("IPHO", 0).getEntries()), "大文字小文字を区別せずに検索されることの確認");
+        assertEquals(List.of(3L), ids(accountBookService.searchEntries("thai cur", 0).getEntries()), "複数の単語を指定した時、全ての単語を含むデータのみ取得されることの確認");
+        assertTrue(accountBookService.searchEntries("curry sushi", 0).getEntries().isEmpty(), "全ての単語を含むデータがない時、空の結果が返ることの確認");
+        assertTrue(accountBookService.searchEntries(" ", 0).getEntries().isEmpty(), "検索語がない時、空の結果が返ることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("検索結果がページサイズ単位で取得され、前後のページの有無が返る")
+    void testSearchEntriesPaging() {
+
+        var firstPage = accountBookService.searchEntries("pro", 0);
+        assertEquals(List.of(6L, 4L), ids(firstPage.getEntries()), "先頭ページのデータの確認");
+        assertTrue(firstPage.isHasNext(), "次ページが存在することの確認");
+        assertFalse(firstPage.isHasPrevious(), "先頭ページには前ページが存在しないことの確認");
+
+        var secondPage = accountBookService.searchEntries("pro", 1);
+        assertEquals(List.of(2L), ids(secondPage.getEntries()), "2ページ目のデータの確認");
+        assertFalse(secondPage.isHasNext(), "最終ページには次ページが存在しないことの確認");
+        assertTrue(secondPage.isHasPrevious(), "2ページ目には前ページが存在することの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("登録、更新、削除、取込の結果が検索結果に反映される")
+    void testSearchIndexFollowsWrites() throws IOException {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("expense");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("Ramen");
+        accountBookForm.setPrice(900);
+        accountBookForm.setNote("Tonkotsu");
+        var registered = accountBookService.registerInfo(accountBookForm);
+        assertEquals(List.of(registered.getId()), ids(accountBookService.searchEntries("tonko", 0).getEntries()), "登録したデータが検索できることの確認");
+
+        accountBookForm.setNote("Shoyu");
+        accountBookService.updateInfo(registered.getId(), accountBookForm);
+        assertTrue(accountBookService.searchEntries("tonko", 0).getEntries().isEmpty(), "更新前の単語で検索できなくなることの確認");
+        assertEquals(List.of(registered.getId()), ids(accountBookService.searchEntries("shoyu", 0).getEntries()), "更新後の単語で検索できることの確認");
+
+        accountBookService.deleteBySpecifiedId(registered.getId());
+        assertTrue(accountBookService.searchEntries("ramen", 0).getEntries().isEmpty(), "削除したデータが検索できなくなることの確認");
+
+        var csv = "expense,2022-03-02,Udon,500,Kitsune\n";
+        accountImportService.importCsv(new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, accountBookService.searchEntries("kitsune", 0).getEntries().size(), "取り込んだデータが検索できることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("取込中の行より大きいIDの登録が先にコミットされても、取込の行が全て検索できる")
+    void testImportedRowsBelowEarlierRegistrationAreIndexed() {
+
+        jdbcTemplate.update("INSERT INTO account (id, item_date, item, income, expense, note) VALUES (4, '2022-03-02', 'Udon', 0, 500, 'Kitsune'), "
+                + "(5, '2022-03-03', 'Soba', 0, 600, 'Tanuki'), (6, '2022-03-04', 'Ramen', 0, 900, 'Tonkotsu')");
+
+        accountSearchIndex.onLedgerChanged(new LedgerChangedEvent(LedgerChangedEvent.Type.REGISTERED, 6L));
+        accountSearchIndex.onLedgerChanged(LedgerChangedEvent.imported(3));
+
+        assertEquals(List.of(4L), accountSearchIndex.search("kitsune", 0, 10), "登録より小さいIDの取込データが検索できることの確認");
+        assertEquals(List.of(5L), accountSearchIndex.search("tanuki", 0, 10), "取込の全ての行が検索できることの確認");
+        assertEquals(List.of(6L), accountSearchIndex.search("tonkotsu", 0, 10), "登録したデータが重複せずに検索できることの確認");
+    }
+
+    private static List<Long> ids(List<Account> accounts) {
+        return accounts.stream().map(Account::getId).toList();
+    }
+}
@@ -8,11 +8,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.sql.Date;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -180,6 +183,35 @@ class AccountBookServiceTest {
 
     }
 
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("複数の入力を受け取った時、全件が入力順に1つのトランザクションで登録される")
+    void testRegisterAll() {
+
+        var accountBookForms = List.of(newForm("income", 1000, "Salary"), newForm("expense", 300, "Coffee"), newForm("expense", 1200, "Lunch"));
+
+        var registered = accountBookService.registerAll(accountBookForms);
+
+        assertEquals(List.of(4L, 5L, 6L), registered.stream().map(Account::getId).toList(), "入力順にIDが採番されることの確認");
+        var actual = accountRepository.findAll();
+        assertEquals(6, actual.size(), "レコード追加後のDBに保存されているデータ数の確認");
+        assertEquals(List.of("Salary", "Coffee", "Lunch"), actual.stream().filter(account -> account.getId() > 3).sorted(Comparator.comparing(Account::getId)).map(Account::getItem).toList(),
+                "全件がDBに保存されていることの確認");
+        assertEquals(-10_900 + 1000 - 300 - 1200, accountBookService.getTotalPrice(), "登録した全件が収支の合計金額に反映されることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("複数の入力のうち1件でも登録できない時、どの入力も登録されない")
+    void testRegisterAllRollsBackOnFailure() {
+
+        var accountBookForms = List.of(newForm("income", 1000, "Salary"), newForm(null, 300, "Broken"));
+
+        assertThrows(NullPointerException.class, () -> accountBookService.registerAll(accountBookForms), "不正な入力で登録が失敗することの確認");
+        assertEquals(3, accountRepository.count(), "1件も登録されていないことの確認");
+        assertEquals(-10_900, accountBookService.getTotalPrice(), "収支の合計金額が変わらないことの確認");
+    }
+
     @Test
     @Sql("/test-schema-with-specifiedID.sql")
     @DisplayName("登録された収支一覧を日付の降順（日付が重なる場合は登録順）で表示するかの確認")
@@ -270,6 +302,37 @@ class AccountBookServiceTest {
         assertEquals(0, actual, "DBに保存されている収出の合計金額が0であることの確認");
     }
 
+    @Test
+    @Sql("/test-getTotalPrice.sql")
+    @DisplayName("指定した期間内の収支の合計金額が計算される")
+    void testGetTotalPriceBetween() {
+
+        var actual = accountBookService.getTotalPriceBetween(Date.valueOf("2022-02-02"), Date.valueOf("2022-02-03"));
+        assertEquals(1001, actual, "指定した期間内の収出の合計金額が計算されていることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("int の上限を超える金額を登録した時、収支の合計金額が桁あふれせずに計算される")
+    void testGetTotalPriceBeyondIntRange() {
+
+        for (var i = 0; i < 2; i++) {
+            var accountBookForm = new AccountBookForm();
+            accountBookForm.setPriceType("income");
+            accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+            accountBookForm.setItem("Bonus");
+            accountBookForm.setPrice(2_000_000_000L + i);
+            accountBookForm.setNote("testNote");
+            accountBookService.registerInfo(accountBookForm);
+        }
+
+        var expected = 4_000_000_001L - 10_900L;
+        assertEquals(2_000_000_001L, accountRepository.findById(5L).orElseGet(Assertions::fail).getIncome(), "int の上限を超える金額がDBに保存されていることの確認");
+        assertEquals(expected, accountBookService.getTotalPrice(), "収出の合計金額が int の範囲を超えても正しく計算されることの確認");
+        assertEquals(expected, accountBookService.getBalanceAsOf(Date.valueOf("2022-03-01")), "指定日時点の残高が int の範囲を超えても正しく計算されることの確認");
+        assertEquals(4_000_000_001L, accountBookService.getTotalPriceBetween(Date.valueOf("2022-03-01"), Date.valueOf("2022-03-01")), "期間内の合計金額が int の範囲を超えても正しく計算されることの確認");
+    }
+
 
     @Test
     @Sql("/test-schema.sql")
@@ -402,6 +465,76 @@ class AccountBookServiceTest {
 
     }
 
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("取得時のバージョンを指定して更新すると、データが更新されバージョンが1つ進む")
+    void testUpdateInfoWithCurrentVersion() {
+
+        var before = accountRepository.findById(1L).orElseThrow();
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("expense");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(2000);
+        accountBookForm.setNote("testNote");
+        accountBookForm.setVersion(before.getVersion());
+
+        accountBookService.updateInfo(1L, accountBookForm);
+
+        var actual = accountRepository.findById(1L).orElseThrow();
+        assertEquals(before.getVersion() + 1, actual.getVersion(), "更新後にバージョンが1つ進んでいる事の確認");
+        assertEquals(2000, actual.getExpense(), "与えられたデータで支出が変更されている事を確認");
+        assertEquals(130000 + 500 - 2000 - 140000 - 900, accountBookService.getTotalPrice(), "更新前後の差分が総資産に反映されている事の確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("古いバージョンを指定して更新すると競合として例外が発生し、データと総資産は変わらない")
+    void testUpdateInfoWithStaleVersion() {
+
+        var before = accountRepository.findById(1L).orElseThrow();
+        var totalPrice = accountBookService.getTotalPrice();
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("income");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("first");
+        accountBookForm.setPrice(100);
+        accountBookForm.setNote("");
+        accountBookForm.setVersion(before.getVersion());
+        accountBookService.updateInfo(1L, accountBookForm);
+
+        var staleForm = new AccountBookForm();
+        staleForm.setPriceType("income");
+        staleForm.setItemDate(Date.valueOf("2022-03-02"));
+        staleForm.setItem("second");
+        staleForm.setPrice(5000);
+        staleForm.setNote("");
+        staleForm.setVersion(before.getVersion());
+
+        assertThrows(OptimisticLockingFailureException.class, () -> accountBookService.updateInfo(1L, staleForm), "古いバージョンでの更新が競合として扱われる事の確認");
+
+        var actual = accountRepository.findById(1L).orElseThrow();
+        assertEquals("first", actual.getItem(), "競合した更新でデータが上書きされていない事の確認");
+        assertEquals(totalPrice + 100 - (1000 - 1500), accountBookService.getTotalPrice(), "競合した更新が総資産に反映されていない事の確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("存在しないIDを指定して更新すると例外が発生する")
+    void testUpdateInfoWhenDataNotExist() {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("income");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(1000);
+        accountBookForm.setNote("testNote");
+
+        assertThrows(NoSuchElementException.class, () -> accountBookService.updateInfo(99L, accountBookForm), "存在しないIDの更新で例外が発生する事の確認");
+    }
+
     @Test
     @Sql("/test-schema-with-specifiedID.sql")
     @DisplayName("指定したIDに紐づいているデータが取得されていることを確認")
@@ -441,6 +574,37 @@ class AccountBookServiceTest {
 
     }
 
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("指定した複数IDのデータが一括で削除され、削除件数が返り、総資産に反映される")
+    void testDeleteByIds() {
+
+        accountBookService.getBySpecifiedId(1L);
+        var totalPrice = accountBookService.getTotalPrice();
+
+        var actual = accountBookService.deleteByIds(List.of(1L, 3L, 99L));
+
+        assertEquals(2, actual, "存在するIDの件数だけ削除された事の確認");
+        assertEquals(4, accountRepository.count(), "削除後に残っているデータ数の確認");
+        assertThrows(NoSuchElementException.class, () -> accountBookService.getBySpecifiedId(1L), "削除したデータがキャッシュからも取得できない事の確認");
+        assertEquals(totalPrice - (1000 - 1500) - (500 - 900), accountBookService.getTotalPrice(), "削除したデータの金額が総資産から差し引かれている事の確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("指定した期間のデータが一括で削除され、削除件数が返り、総資産に反映される")
+    void testDeleteBetween() {
+
+        var totalPrice = accountBookService.getTotalPrice();
+
+        var actual = accountBookService.deleteBetween(Date.valueOf("2022-05-01"), Date.valueOf("2022-05-31"));
+
+        assertEquals(3, actual, "期間内のデータ件数だけ削除された事の確認");
+        assertEquals(List.of(1L, 3L, 5L), accountRepository.findAll().stream().map(Account::getId).sorted().toList(), "期間外のデータが残っている事の確認");
+        assertEquals(totalPrice - (130000 - 140000) + 180000 + 140000, accountBookService.getTotalPrice(), "削除したデータの金額が総資産から差し引かれている事の確認");
+        assertEquals(0, accountBookService.deleteBetween(Date.valueOf("2022-05-01"), Date.valueOf("2022-05-31")), "該当データがない時は0件が返る事の確認");
+    }
+
     @Test
     @Sql("/test-schema-for-getPage.sql")
     @DisplayName("メイン画面で選択したデータの情報が遷移先のページの入力欄に入力されている事の確認")
@@ -480,4 +644,16 @@ class AccountBookServiceTest {
         assertEquals("iPhone 13 Pro", expenseAccountBookForm.getNote(), "編集ページに遷移した際に選択したカラムの日付データが入力欄に入力されているかの確認");
 
     }
-}
\ No newline at end of file
+
+    private static AccountBookForm newForm(String priceType, long price, String item) {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType(priceType);
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem(item);
+        accountBookForm.setPrice(price);
+        accountBookForm.setNote("testNote");
+
+        return accountBookForm;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.LedgerTotal;
+import com.example.okozukai.form.LedgerCursorForm;
+import com.example.okozukai.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "okozukai.query-executor.pool-size=4",
+        "okozukai.cache.specs.netWorth=expireAfterWrite=0s"
+})
+class AccountBookServiceTopPageTest {
+
+    private static final long QUERY_LATENCY_MILLIS = 100;
+
+    private static final int CONCURRENT_REQUESTS = 4;
+
+    private static final int REQUESTS_PER_CLIENT = 5;
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @MockBean
+    AccountRepository accountRepository;
+
+    @MockBean
+    LedgerTotalService ledgerTotalService;
+
+    @BeforeEach
+    void setUp() {
+
+        when(accountRepository.findLatest(any())).thenAnswer(invocation -> {
+            Thread.sleep(QUERY_LATENCY_MILLIS);
+            return List.of();
+        });
+        when(ledgerTotalService.getLedgerTotal()).thenAnswer(invocation -> {
+            Thread.sleep(QUERY_LATENCY_MILLIS);
+            var ledgerTotal = new LedgerTotal();
+            ledgerTotal.setTotalIncome(1000);
+            ledgerTotal.setTotalExpense(400);
+            return ledgerTotal;
+        });
+    }
+
+    @Test
+    @DisplayName("一覧と残高の取得を並行に実行した時、同時アクセス下でも逐次実行より応答時間が短くなる")
+    void testGetTopPageIsFasterThanSequentialQueries() throws Exception {
+
+        var sequentialMillis = measureWallClockMillis(() -> {
+            accountBookService.getLedgerPage(new LedgerCursorForm());
+            return accountBookService.getTotalPrice();
+        });
+        var concurrentMillis = measureWallClockMillis(() -> accountBookService.getTopPage(new LedgerCursorForm()).getNetWorth());
+
+        var expectedSequentialMillis = 2 * QUERY_LATENCY_MILLIS * REQUESTS_PER_CLIENT;
+        assertTrue(sequentialMillis >= expectedSequentialMillis, "逐次実行では2つのクエリの待ち時間が合算されることの確認: " + sequentialMillis + "ms");
+        assertTrue(concurrentMillis < sequentialMillis * 0.75, "並行実行の方が逐次実行より短時間で完了することの確認: " + concurrentMillis + "ms / " + sequentialMillis + "ms");
+    }
+
+    @Test
+    @DisplayName("並行に取得した一覧と残高がトップページの結果にまとめられる")
+    void testGetTopPage() {
+
+        var actual = accountBookService.getTopPage(new LedgerCursorForm());
+
+        assertTrue(actual.getLedgerPage().getEntries().isEmpty(), "一覧の取得結果が設定されていることの確認");
+        assertEquals(600, actual.getNetWorth(), "残高の取得結果が設定されていることの確認");
+    }
+
+    private long measureWallClockMillis(Callable<Long> request) throws Exception {
+
+        var clients = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            var startedAt = System.nanoTime();
+            var results = new ArrayList<Future<?>>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                results.add(clients.submit(() -> {
+                    for (int j = 0; j < REQUESTS_PER_CLIENT; j++) {
+                        assertEquals(600, request.call());
+                    }
+                    return null;
+                }));
+            }
+            for (var result : results) {
+                result.get();
+            }
+            return (System.nanoTime() - startedAt) / 1_000_000;
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
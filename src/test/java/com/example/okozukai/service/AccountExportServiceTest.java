@@ -0,0 +1,64 @@
+package com.example.okozukai.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AccountExportServiceTest {
+
+    @Autowired
+    AccountExportService accountExportService;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("全データが日付の昇順（日付が重なる場合はIDの昇順）でCSVとして出力される")
+    void testExportCsv() throws IOException {
+
+        var outputStream = new ByteArrayOutputStream();
+        accountExportService.exportTo(outputStream, AccountExportService.Format.CSV);
+
+        var actual = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(7, actual.size(), "ヘッダーと全データの行数が出力されていることの確認");
+        assertEquals("id,itemDate,item,income,expense,note", actual.get(0), "ヘッダーが出力されていることの確認");
+        assertEquals("1,2022-01-20,T-Shirts,1000,1500,Uniqlo T-Shirt", actual.get(1), "最も古いデータが先頭に出力されていることの確認");
+        assertTrue(actual.get(2).startsWith("2,2022-05-03,iPhone"), "日付が重なる場合にIDの昇順で出力されていることの確認");
+        assertTrue(actual.get(3).startsWith("4,2022-05-03,MacBook"), "日付が重なる場合にIDの昇順で出力されていることの確認");
+        assertEquals("5,2022-10-08,Sushi,1000,700,Tuna", actual.get(6), "最も新しいデータが最後に出力されていることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("全データが1行1件のJSONとして出力される")
+    void testExportNdjson() throws IOException {
+
+        var outputStream = new ByteArrayOutputStream();
+        accountExportService.exportTo(outputStream, AccountExportService.Format.NDJSON);
+
+        var actual = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(6, actual.size(), "全データの行数が出力されていることの確認");
+        assertTrue(actual.get(0).startsWith("{\"id\":1,"), "最も古いデータが先頭に出力されていることの確認");
+        assertTrue(actual.get(0).contains("\"itemDate\":\"2022-01-20\""), "日付が文字列で出力されていることの確認");
+        assertTrue(actual.get(5).contains("\"item\":\"Sushi\""), "最も新しいデータが最後に出力されていることの確認");
+    }
+
+    @Test
+    @DisplayName("カンマや引用符を含む値がCSV用にエスケープされる")
+    void testEscapeCsv() {
+
+        assertEquals("plain", AccountExportService.escapeCsv("plain"), "エスケープ不要な値はそのまま出力されることの確認");
+        assertEquals("\"a,b\"", AccountExportService.escapeCsv("a,b"), "カンマを含む値が引用符で囲まれることの確認");
+        assertEquals("\"say \"\"hi\"\"\"", AccountExportService.escapeCsv("say \"hi\""), "引用符が二重化されることの確認");
+        assertEquals("", AccountExportService.escapeCsv(null), "nullが空文字で出力されることの確認");
+    }
+}
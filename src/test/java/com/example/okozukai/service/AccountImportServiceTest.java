@@ -0,0 +1,126 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.repository.AccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "okozukai.import.chunk-size=2")
+class AccountImportServiceTest {
+
+    @Autowired
+    AccountImportService accountImportService;
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    LedgerTotalService ledgerTotalService;
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("CSVの各行が収支データとしてチャンク単位で登録され、残高に反映される")
+    void testImportCsv() throws IOException {
+
+        var csv = """
+                priceType,itemDate,item,price,note
+                income,2022-03-01,Salary,300000,March
+                expense,2022-03-02,"Coffee, Beans",1200,"He said ""good""\"
+                expense,2022-03-03,Lunch,900,
+                """;
+
+        var actual = accountImportService.importCsv(new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, actual.getImportedRows(), "取り込んだ件数の確認");
+        assertEquals(2, actual.getCommittedChunks(), "チャンクサイズごとにコミットされていることの確認");
+        assertEquals(3, actual.getTotalRows(), "取込前に数えた件数の確認");
+        assertEquals(4, actual.getLastCommittedLine(), "最後にコミットした行番号の確認");
+        assertEquals(actual, accountImportService.getProgress().orElseThrow(), "完了した取込の進捗が取得できることの確認");
+        assertTrue(actual.isFinished(), "取込が完了していることの確認");
+
+        var accounts = accountRepository.findAll();
+        assertEquals(6, accounts.size(), "既存データに取り込んだデータが追加されていることの確認");
+
+        accounts.sort(Comparator.comparing(Account::getId));
+        assertEquals(Date.valueOf("2022-03-01"), accounts.get(3).getItemDate(), "日付が登録されていることの確認");
+        assertEquals(300000, accounts.get(3).getIncome(), "収入が登録されていることの確認");
+        assertEquals("Coffee, Beans", accounts.get(4).getItem(), "引用符で囲まれたカンマを含む内容が登録されていることの確認");
+        assertEquals("He said \"good\"", accounts.get(4).getNote(), "エスケープされた引用符を含む備考が登録されていることの確認");
+        assertEquals(1200, accounts.get(4).getExpense(), "支出が登録されていることの確認");
+        assertEquals("", accounts.get(5).getNote(), "空の備考が登録されていることの確認");
+
+        assertEquals(-10900 + 300000 - 1200 - 900, accountBookService.getTotalPrice(), "取り込んだデータが残高に反映されていることの確認");
+        assertTrue(ledgerTotalService.reconcile(), "集計行が全件再計算の結果と一致していることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("不正な行がある時、行番号を含むエラーになり、1件も登録されない")
+    void testImportCsvWithInvalidLine() {
+
+        var csv = """
+                income,2022-03-01,Salary,300000,March
+                expense,2022-03-02,Coffee,1200,Beans
+                transfer,2022-03-03,Lunch,900,
+                """;
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> accountImportService.importCsv(new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8))));
+
+        assertTrue(exception.getMessage().startsWith("line 3:"), "エラーに不正な行の行番号が含まれていることの確認");
+        assertEquals(3, accountRepository.count(), "不正な行より前の行もコミットされていないことの確認");
+        assertTrue(ledgerTotalService.reconcile(), "集計行が全件再計算の結果と一致していることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("取込の実行中に別の取込は受け付けられず、実行中の取込の進捗は上書きされない")
+    void testConcurrentImportIsRejected() throws Exception {
+
+        var bytes = "income,2022-03-01,Salary,300000,March\n".getBytes(StandardCharsets.UTF_8);
+        var reading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var running = CompletableFuture.supplyAsync(() -> {
+            try {
+                return accountImportService.importCsv(() -> {
+                    reading.countDown();
+                    try {
+                        assertTrue(release.await(10, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new ByteArrayInputStream(bytes);
+                });
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(reading.await(10, TimeUnit.SECONDS), "最初の取込が開始されることの確認");
+
+        assertThrows(RejectedExecutionException.class, () -> accountImportService.importCsv(new ByteArrayResource(bytes)), "実行中に別の取込が拒否されることの確認");
+
+        release.countDown();
+        assertEquals(1, running.join().getImportedRows(), "実行中だった取込が最後まで完了することの確認");
+        assertEquals(running.join(), accountImportService.getProgress().orElseThrow(), "進捗が実行中だった取込のものであることの確認");
+        assertEquals(1, accountImportService.importCsv(new ByteArrayResource(bytes)).getImportedRows(), "完了後は次の取込を受け付けることの確認");
+    }
+}
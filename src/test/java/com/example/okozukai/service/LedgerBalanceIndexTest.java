@@ -0,0 +1,125 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.form.AccountBookForm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class LedgerBalanceIndexTest {
+
+    @Autowired
+    LedgerBalanceIndex ledgerBalanceIndex;
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountImportService accountImportService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("指定した日付時点の残高と、指定した期間の残高が取得される")
+    void testBalanceAsOfAndBetween() {
+
+        assertEquals(0, ledgerBalanceIndex.balanceAsOf(LocalDate.parse("2022-01-19")), "最初のデータより前の日付では残高が0であることの確認");
+        assertEquals(-500, ledgerBalanceIndex.balanceAsOf(LocalDate.parse("2022-01-20")), "指定した日付のデータが残高に含まれることの確認");
+        assertEquals(-500 - 10000 - 180000 - 140000, ledgerBalanceIndex.balanceAsOf(LocalDate.parse("2022-05-03")), "同じ日付の複数データが全て含まれることの確認");
+        assertEquals(-330600, ledgerBalanceIndex.balanceAsOf(LocalDate.parse("2100-01-01")), "全データより後の日付では総資産と一致することの確認");
+
+        assertEquals(-10000 - 180000 - 140000 - 400, ledgerBalanceIndex.balanceBetween(LocalDate.parse("2022-05-03"), LocalDate.parse("2022-07-20")), "期間の両端の日付が含まれることの確認");
+        assertEquals(0, ledgerBalanceIndex.balanceBetween(LocalDate.parse("2022-07-21"), LocalDate.parse("2022-07-20")), "開始日が終了日より後の時は0であることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("登録、更新、削除、取込の結果が残高に反映され、DBの集計と一致する")
+    void testBalanceFollowsWrites() throws IOException {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("income");
+        accountBookForm.setItemDate(Date.valueOf("2030-06-01"));
+        accountBookForm.setItem("Bonus");
+        accountBookForm.setPrice(50000);
+        accountBookForm.setNote("");
+        var registered = accountBookService.registerInfo(accountBookForm);
+        assertBalancesMatchDatabase();
+
+        accountBookForm.setPriceType("expense");
+        accountBookForm.setItemDate(Date.valueOf("1999-12-31"));
+        accountBookService.updateInfo(registered.getId(), accountBookForm);
+        assertBalancesMatchDatabase();
+
+        var csv = "income,2022-02-03,Refund,700,\nexpense,2022-02-10,Books,3000,\n";
+        accountImportService.importCsv(new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8)));
+        assertBalancesMatchDatabase();
+
+        accountBookService.deleteBetween(Date.valueOf("2022-02-03"), Date.valueOf("2022-02-04"));
+        assertBalancesMatchDatabase();
+
+        accountBookService.deleteByIds(List.of(1L, registered.getId()));
+        assertBalancesMatchDatabase();
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("コミット済みで反映前の登録があっても、再構築の後に二重に加算されない")
+    void testRebuildBetweenCommitAndApply() {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("income");
+        accountBookForm.setItemDate(Date.valueOf("2022-02-02"));
+        accountBookForm.setItem("Bonus");
+        accountBookForm.setPrice(50000);
+        accountBookForm.setNote("");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    CompletableFuture.runAsync(ledgerBalanceIndex::rebuild).join();
+                }
+            });
+            accountBookService.registerInfo(accountBookForm);
+        });
+
+        assertBalancesMatchDatabase();
+    }
+
+    private void assertBalancesMatchDatabase() {
+
+        var dates = List.of("1999-12-30", "1999-12-31", "2022-02-02", "2022-02-03", "2022-02-10", "2030-06-01");
+        for (var from : dates) {
+            for (var to : dates) {
+                if (from.compareTo(to) <= 0) {
+                    assertEquals(jdbcTemplate.queryForObject("SELECT COALESCE(SUM(income - expense), 0) FROM account WHERE item_date BETWEEN ? AND ?",
+                                    Long.class, Date.valueOf(from), Date.valueOf(to)),
+                            ledgerBalanceIndex.balanceBetween(LocalDate.parse(from), LocalDate.parse(to)),
+                            from + "〜" + to + "の残高がDBの集計と一致することの確認");
+                }
+            }
+        }
+    }
+}
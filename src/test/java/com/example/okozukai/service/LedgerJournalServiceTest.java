@@ -0,0 +1,150 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.LedgerJournalEntry;
+import com.example.okozukai.entity.MonthlyRollup;
+import com.example.okozukai.event.LedgerChangedEvent;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.repository.AccountRepository;
+import com.example.okozukai.repository.LedgerSnapshotRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "okozukai.journal.snapshot-retention=1")
+class LedgerJournalServiceTest {
+
+    @Autowired
+    LedgerJournalService ledgerJournalService;
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountImportService accountImportService;
+
+    @Autowired
+    LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Autowired
+    LedgerSnapshotRepository ledgerSnapshotRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("登録、更新、削除のたびにジャーナルへ追記され、更新前の内容は打ち消しとして残る")
+    void testJournalRecordsEveryChange() {
+
+        var registered = accountBookService.registerInfo(newForm("expense", "2022-02-20", "Lunch", 1200));
+        var accountBookForm = newForm("expense", "2022-02-21", "Dinner", 3000);
+        accountBookForm.setVersion(registered.getVersion());
+        accountBookService.updateInfo(registered.getId(), accountBookForm);
+        accountBookService.deleteBySpecifiedId(registered.getId());
+
+        var history = ledgerJournalService.getAccountHistory(registered.getId());
+        assertEquals(List.of(LedgerChangedEvent.Type.REGISTERED, LedgerChangedEvent.Type.UPDATED, LedgerChangedEvent.Type.UPDATED, LedgerChangedEvent.Type.DELETED),
+                history.stream().map(LedgerJournalEntry::getChangeType).toList(), "変更の順にジャーナルが追記されることの確認");
+        assertEquals(List.of(1200L, -1200L, 3000L, -3000L), history.stream().map(LedgerJournalEntry::getExpense).toList(), "更新前と削除した内容が打ち消しとして記録されることの確認");
+        assertEquals(List.of("Lunch", "Lunch", "Dinner", "Dinner"), history.stream().map(LedgerJournalEntry::getItem).toList(), "各時点の内容が記録されることの確認");
+        assertEquals(0, history.stream().mapToLong(LedgerJournalEntry::getExpense).sum(), "削除後にジャーナルの合計が0になることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("取り込んだ行もジャーナルに1件ずつ追記される")
+    void testImportIsJournaled() throws IOException {
+
+        var csv = """
+                priceType,itemDate,item,price,note
+                income,2022-03-01,Salary,250000,
+                expense,2022-03-02,Rent,80000,
+                expense,2022-03-03,Lunch,1200,
+                """;
+        accountImportService.importCsv(new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8)));
+
+        var journaled = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ledger_journal WHERE change_type = 'IMPORTED'", Long.class);
+        assertEquals(3, journaled, "取り込んだ行数だけジャーナルに追記されることの確認");
+        assertEquals(1, ledgerJournalService.getAccountHistory(accountRepository.findMaxId()).size(), "同じ行が重複して追記されないことの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("派生データは最新のスナップショットとそれ以降のジャーナルだけから再構築され、全件走査の結果と一致する")
+    void testRebuildFromSnapshotAndTail() {
+
+        accountBookService.registerInfo(newForm("income", "2022-02-10", "Salary", 250000));
+        var snapshot = ledgerJournalService.takeSnapshot();
+        assertEquals(-10_900 + 250000, snapshot.getNet(), "スナップショットに時点の収支が記録されることの確認");
+
+        var lunch = accountBookService.registerInfo(newForm("expense", "2022-03-01", "Lunch", 1200));
+        accountBookService.deleteBySpecifiedId(1L);
+        var position = ledgerJournalService.currentPosition();
+        assertEquals(snapshot.getId(), position.snapshotId(), "最新のスナップショットから再生されることの確認");
+        assertEquals(2, position.journalSeq() - position.snapshotSeq(), "スナップショット以降のジャーナルだけが再生されることの確認");
+
+        jdbcTemplate.update("UPDATE ledger_total SET total_income = 0, total_expense = 0");
+        jdbcTemplate.update("DELETE FROM monthly_rollup");
+        jdbcTemplate.update("DELETE FROM monthly_item_rollup");
+        jdbcTemplate.update("UPDATE account SET expense = 999999 WHERE id = ?", lunch.getId());
+        ledgerJournalService.rebuildDerivedState();
+
+        var expectedNet = -10_900 + 250000 - 1200 + 500;
+        assertEquals(expectedNet, accountBookService.getTotalPrice(), "ジャーナルから収支の合計が再構築されることの確認");
+        assertEquals(expectedNet, accountBookService.getBalanceAsOf(Date.valueOf("2022-12-31")), "ジャーナルから残高の索引が再構築されることの確認");
+        assertEquals(-1200, ledgerRollupService.getMonthlyReport(2022).stream().filter(month -> month.getYearMonth() == 202203)
+                .mapToLong(MonthlyRollup::getNet).sum(), "ジャーナルから月ごとの集計が再構築されることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("指定した時点の収支がスナップショットとジャーナルから計算され、最初のスナップショット以前は取得できない")
+    void testStateAtPointInTime() throws InterruptedException {
+
+        var beforeJournal = LocalDateTime.now().minusDays(1);
+        accountBookService.registerInfo(newForm("income", "2022-02-10", "Salary", 250000));
+        ledgerJournalService.takeSnapshot();
+        Thread.sleep(20);
+        var afterSalary = LocalDateTime.now();
+        Thread.sleep(20);
+        accountBookService.registerInfo(newForm("expense", "2022-03-01", "Rent", 80000));
+        ledgerJournalService.takeSnapshot();
+        ledgerJournalService.takeSnapshot();
+        accountBookService.deleteBySpecifiedId(2L);
+
+        assertEquals(-10_900 + 250000, ledgerJournalService.getStateAt(afterSalary).getNetWorth(), "指定した時点の収支が取得できることの確認");
+        assertEquals(-10_900 + 250000 - 80000 + 10000, ledgerJournalService.getStateAt(LocalDateTime.now()).getNetWorth(), "現在の収支が取得できることの確認");
+        assertEquals(accountBookService.getTotalPrice(), ledgerJournalService.getStateAt(LocalDateTime.now()).getNetWorth(), "現在の収支が合計金額と一致することの確認");
+        assertThrows(NoSuchElementException.class, () -> ledgerJournalService.getStateAt(beforeJournal), "最初のスナップショット以前は取得できないことの確認");
+        assertEquals(2, ledgerSnapshotRepository.count(), "最初と最新のスナップショットだけが残ることの確認");
+    }
+
+    private static AccountBookForm newForm(String priceType, String itemDate, String item, long price) {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType(priceType);
+        accountBookForm.setItemDate(Date.valueOf(LocalDate.parse(itemDate)));
+        accountBookForm.setItem(item);
+        accountBookForm.setPrice(price);
+        accountBookForm.setNote("");
+
+        return accountBookForm;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.MonthlyItemRollup;
+import com.example.okozukai.entity.MonthlyRollup;
+import com.example.okozukai.form.AccountBookForm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class LedgerRollupServiceTest {
+
+    @Autowired
+    LedgerRollupService ledgerRollupService;
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountImportService accountImportService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    @Sql("/test-schema-with-specifiedID.sql")
+    @DisplayName("月ごとの収支と、月内の内容ごとの収支が集計テーブルから取得される")
+    void testGetReports() {
+
+        var months = ledgerRollupService.getMonthlyReport(2022);
+        assertEquals(List.of(202201, 202205, 202207, 202210), months.stream().map(MonthlyRollup::getYearMonth).toList(), "データが存在する月のみ昇順で取得されることの確認");
+        assertEquals(130000, months.get(1).getIncome(), "5月の収入の合計の確認");
+        assertEquals(460000, months.get(1).getExpense(), "5月の支出の合計の確認");
+        assertEquals(-330000, months.get(1).getNet(), "5月の収支の確認");
+        assertTrue(ledgerRollupService.getMonthlyReport(2021).isEmpty(), "データが存在しない年は空であることの確認");
+
+        var items = ledgerRollupService.getItemReport(2022, 5);
+        assertEquals(List.of("MacBook", "iPhone", "iPad"), items.stream().map(MonthlyItemRollup::getItem).toList(), "支出の多い順に内容ごとの集計が取得されることの確認");
+        assertEquals(-10000, items.get(1).getNet(), "内容ごとの収支の確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("登録、更新、削除、取込の結果が集計テーブルに反映され、再構築した結果と一致する")
+    void testRollupsFollowWrites() throws IOException {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("expense");
+        accountBookForm.setItemDate(Date.valueOf("2022-02-20"));
+        accountBookForm.setItem("Green Curry");
+        accountBookForm.setPrice(1200);
+        accountBookForm.setNote("");
+        var registered = accountBookService.registerInfo(accountBookForm);
+        assertEquals(2100, itemExpense(2022, 2, "Green Curry"), "登録したデータが同じ月と内容の集計に加算されることの確認");
+
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("Coffee");
+        accountBookService.updateInfo(registered.getId(), accountBookForm);
+        assertEquals(900, itemExpense(2022, 2, "Green Curry"), "更新前の月と内容の集計から差し引かれることの確認");
+        assertEquals(1200, itemExpense(2022, 3, "Coffee"), "更新後の月と内容の集計に加算されることの確認");
+
+        var csv = "income,2022-03-15,Salary,300000,\nexpense,2022-04-01,Coffee,400,\n";
+        accountImportService.importCsv(new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8)));
+        accountBookService.deleteBySpecifiedId(1L);
+        accountBookService.deleteBetween(Date.valueOf("2022-02-04"), Date.valueOf("2022-02-04"));
+
+        var incremental = List.of(ledgerRollupService.getMonthlyReport(2022), ledgerRollupService.getItemReport(2022, 2), ledgerRollupService.getItemReport(2022, 3));
+        ledgerRollupService.rebuild();
+        var rebuilt = List.of(ledgerRollupService.getMonthlyReport(2022), ledgerRollupService.getItemReport(2022, 2), ledgerRollupService.getItemReport(2022, 3));
+
+        assertEquals(rebuilt, incremental, "差分で更新した集計と再構築した集計が一致することの確認");
+        assertEquals(List.of("iPhone"), ledgerRollupService.getItemReport(2022, 2).stream().map(MonthlyItemRollup::getItem).toList(), "削除したデータが集計から除かれることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("再構築中の登録は再構築のコミットまで待たされ、集計から漏れない")
+    void testRegistrationWaitsForRebuild() {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("expense");
+        accountBookForm.setItemDate(Date.valueOf("2022-02-04"));
+        accountBookForm.setItem("Green Curry");
+        accountBookForm.setPrice(1200);
+        accountBookForm.setNote("");
+        var before = itemExpense(2022, 2, "Green Curry");
+
+        var write = transactionTemplate.execute(status -> {
+            ledgerRollupService.rebuild();
+            var registering = CompletableFuture.runAsync(() -> accountBookService.registerInfo(accountBookForm));
+            assertThrows(TimeoutException.class, () -> registering.get(500, TimeUnit.MILLISECONDS), "再構築中の登録が集計行のロックで待たされることの確認");
+            return registering;
+        });
+        write.join();
+
+        assertEquals(before + 1200, itemExpense(2022, 2, "Green Curry"), "再構築の後にコミットされた登録が集計に加算されることの確認");
+    }
+
+    private long itemExpense(int year, int month, String item) {
+        return ledgerRollupService.getItemReport(year, month).stream()
+                .filter(rollup -> rollup.getItem().equals(item))
+                .mapToLong(MonthlyItemRollup::getExpense)
+                .sum();
+    }
+}
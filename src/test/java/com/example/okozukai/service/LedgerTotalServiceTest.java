@@ -0,0 +1,135 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.LedgerTotal;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.repository.AccountRepository;
+import com.example.okozukai.repository.LedgerTotalRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.sql.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class LedgerTotalServiceTest {
+
+    @Autowired
+    LedgerTotalService ledgerTotalService;
+
+    @Autowired
+    LedgerTotalRepository ledgerTotalRepository;
+
+    @Autowired
+    AccountBookService accountBookService;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("収支を登録した時、集計行の収入と支出に差分が加算される")
+    void testApplyDeltaWhenRegisterInfo() {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("income");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(1000);
+        accountBookForm.setNote("testNote");
+
+        accountBookService.registerInfo(accountBookForm);
+
+        var actual = ledgerTotalRepository.findById(LedgerTotal.SINGLETON_ID).orElseThrow();
+        assertEquals(132500, actual.getTotalIncome(), "登録した収入が集計行に加算されていることの確認");
+        assertEquals(142400, actual.getTotalExpense(), "支出の集計値が変わらないことの確認");
+        assertTrue(ledgerTotalService.reconcile(), "集計行が全件再計算の結果と一致していることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("収支を更新した時、集計行に更新前との差分が反映される")
+    void testApplyDeltaWhenUpdateInfo() {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("expense");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(2000);
+        accountBookForm.setNote("testNote");
+
+        accountBookService.updateInfo(1L, accountBookForm);
+
+        var actual = ledgerTotalRepository.findById(LedgerTotal.SINGLETON_ID).orElseThrow();
+        assertEquals(130500, actual.getTotalIncome(), "更新前の収入が集計行から差し引かれていることの確認");
+        assertEquals(142900, actual.getTotalExpense(), "更新前後の支出の差分が集計行に反映されていることの確認");
+        assertTrue(ledgerTotalService.reconcile(), "集計行が全件再計算の結果と一致していることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("収支を削除した時、集計行から削除したデータの収入と支出が差し引かれる")
+    void testApplyDeltaWhenDeleteBySpecifiedId() {
+
+        accountBookService.deleteBySpecifiedId(2L);
+
+        var actual = ledgerTotalRepository.findById(LedgerTotal.SINGLETON_ID).orElseThrow();
+        assertEquals(1500, actual.getTotalIncome(), "削除したデータの収入が集計行から差し引かれていることの確認");
+        assertEquals(2400, actual.getTotalExpense(), "削除したデータの支出が集計行から差し引かれていることの確認");
+        assertTrue(ledgerTotalService.reconcile(), "集計行が全件再計算の結果と一致していることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("集計行が全件再計算の結果とずれている時、突合処理で再計算の結果に修正される")
+    void testReconcileWhenLedgerTotalDrifted() {
+
+        var drifted = ledgerTotalRepository.findById(LedgerTotal.SINGLETON_ID).orElseThrow();
+        drifted.setTotalIncome(0);
+        ledgerTotalRepository.save(drifted);
+
+        assertFalse(ledgerTotalService.reconcile(), "ずれがある時に突合結果が不一致になることの確認");
+
+        var actual = ledgerTotalRepository.findById(LedgerTotal.SINGLETON_ID).orElseThrow();
+        assertEquals(131500, actual.getTotalIncome(), "集計行の収入が再計算の結果に修正されていることの確認");
+        assertEquals(142400, actual.getTotalExpense(), "集計行の支出が再計算の結果と一致していることの確認");
+        assertTrue(ledgerTotalService.reconcile(), "修正後は突合結果が一致することの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("突合処理は集計行をロックしてから再計算するため、再計算中の登録は突合の後にコミットされる")
+    void testReconcileSumsUnderRowLock() {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType("income");
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(1000);
+        accountBookForm.setNote("testNote");
+
+        var write = new CompletableFuture<Void>();
+        assertTrue(ledgerTotalService.reconcile(() -> {
+            CompletableFuture.runAsync(() -> accountBookService.registerInfo(accountBookForm)).whenComplete((result, e) -> {
+                if (e == null) {
+                    write.complete(null);
+                } else {
+                    write.completeExceptionally(e);
+                }
+            });
+            assertThrows(TimeoutException.class, () -> write.get(500, TimeUnit.MILLISECONDS), "再計算中の登録が集計行のロックで待たされることの確認");
+            return accountRepository.sumAll();
+        }), "再計算の結果が集計行と一致することの確認");
+
+        write.join();
+        var actual = ledgerTotalRepository.findById(LedgerTotal.SINGLETON_ID).orElseThrow();
+        assertEquals(131500 + 1000, actual.getTotalIncome(), "突合の後にコミットされた登録が集計行に加算されていることの確認");
+        assertTrue(ledgerTotalService.reconcile(), "登録後も突合結果が一致することの確認");
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.okozukai.service;
+
+import com.example.okozukai.entity.Account;
+import com.example.okozukai.form.AccountBookForm;
+import com.example.okozukai.repository.AccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "okozukai.registration.group-commit.enabled=true",
+        "okozukai.registration.group-commit.queue-capacity=2",
+        "okozukai.registration.group-commit.max-batch-size=4",
+        "okozukai.registration.group-commit.linger=500ms",
+        "okozukai.registration.group-commit.offer-timeout=100ms",
+        "okozukai.registration.group-commit.commit-timeout=1s"
+})
+class RegistrationGroupCommitterTest {
+
+    @Autowired
+    RegistrationGroupCommitter registrationGroupCommitter;
+
+    @Autowired
+    AccountRepository accountRepository;
+
+    @SpyBean
+    AccountBookService accountBookService;
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("同時に受け付けた登録は1つのトランザクションにまとめてコミットされ、コミット後に応答が返る")
+    void testRegistrationsAreCommittedTogether() {
+
+        var results = IntStream.range(0, 4).mapToObj(i -> registrationGroupCommitter.submit(newForm("income", 1000 + i))).toList();
+        var accounts = results.stream().map(CompletableFuture::join).toList();
+
+        verify(accountBookService, times(1)).registerAll(argThat(forms -> forms.size() == 4));
+        assertEquals(List.of(4L, 5L, 6L, 7L), accounts.stream().map(Account::getId).toList(), "登録した順にIDが採番されることの確認");
+        assertEquals(7, accountRepository.count(), "応答が返った時点で全件がコミットされていることの確認");
+        assertEquals(-10_900 + 4006, accountBookService.getTotalPrice(), "まとめて登録した金額が収支の合計金額に反映されることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("書き込み待ちのキューが満杯の時、登録は受け付けられずに拒否される")
+    void testSubmitIsRejectedWhenQueueIsFull() throws Exception {
+
+        var writing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return invocation.callRealMethod();
+        }).when(accountBookService).registerAll(any());
+
+        var first = registrationGroupCommitter.submit(newForm("income", 100));
+        assertTrue(writing.await(10, TimeUnit.SECONDS), "最初の登録の書き込みが開始されることの確認");
+        var queued = List.of(registrationGroupCommitter.submit(newForm("income", 200)), registrationGroupCommitter.submit(newForm("income", 300)));
+
+        assertThrows(RejectedExecutionException.class, () -> registrationGroupCommitter.submit(newForm("income", 400)), "キューが満杯の時に登録が拒否されることの確認");
+        assertFalse(first.isDone(), "コミット前には応答が返らないことの確認");
+
+        release.countDown();
+        first.join();
+        queued.forEach(CompletableFuture::join);
+        assertEquals(6, accountRepository.count(), "受け付けた登録だけがコミットされることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("まとめたコミットがロールバックされた時、1件ずつコミットし直される")
+    void testFailedBatchFallsBackToSingleCommits() {
+
+        doAnswer(invocation -> {
+            if (invocation.<List<AccountBookForm>>getArgument(0).size() > 1) {
+                throw new IllegalStateException("batch rolled back");
+            }
+            return invocation.callRealMethod();
+        }).when(accountBookService).registerAll(any());
+
+        var results = List.of(registrationGroupCommitter.submit(newForm("income", 100)), registrationGroupCommitter.submit(newForm("expense", 300)));
+
+        results.forEach(result -> assertNotNull(result.join().getId(), "1件ずつコミットし直した登録に応答が返ることの確認"));
+        assertEquals(5, accountRepository.count(), "全ての登録がDBに保存されていることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("不正な登録はキューに入る前に拒否され、同時に受け付けた他の登録はまとめてコミットされる")
+    void testInvalidFormIsRejectedBeforeQueueing() {
+
+        var good = registrationGroupCommitter.submit(newForm("income", 100));
+        assertThrows(IllegalArgumentException.class, () -> registrationGroupCommitter.submit(newForm(null, 200)), "収支の種類がない登録が呼び出し元で拒否されることの確認");
+        var alsoGood = registrationGroupCommitter.submit(newForm("expense", 300));
+
+        assertNotNull(good.join().getId(), "正しい登録がコミットされることの確認");
+        assertNotNull(alsoGood.join().getId(), "正しい登録がコミットされることの確認");
+        verify(accountBookService, times(1)).registerAll(argThat(forms -> forms.size() == 2));
+        assertEquals(5, accountRepository.count(), "正しい登録だけがDBに保存されていることの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("書き込みが始まらないまま待ち時間を過ぎた登録は取り下げられ、コミットされない")
+    void testTimedOutRegistrationIsWithdrawn() throws Exception {
+
+        var writing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return invocation.callRealMethod();
+        }).when(accountBookService).registerAll(any());
+
+        var first = registrationGroupCommitter.submit(newForm("income", 100));
+        assertTrue(writing.await(10, TimeUnit.SECONDS), "最初の登録の書き込みが開始されることの確認");
+
+        assertThrows(RejectedExecutionException.class, () -> registrationGroupCommitter.register(newForm("income", 200)), "待ち時間を過ぎた登録が拒否されることの確認");
+
+        release.countDown();
+        first.join();
+        registrationGroupCommitter.submit(newForm("income", 300)).join();
+        assertEquals(5, accountRepository.count(), "取り下げた登録がコミットされないことの確認");
+    }
+
+    @Test
+    @Sql("/test-schema.sql")
+    @DisplayName("コミット後の処理が失敗しても、まとめた登録は1件ずつ登録し直されない")
+    void testAfterCommitFailureIsNotRetried() {
+
+        doAnswer(invocation -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    throw new IllegalStateException("after commit");
+                }
+            });
+            return invocation.callRealMethod();
+        }).when(accountBookService).registerAll(any());
+
+        var results = List.of(registrationGroupCommitter.submit(newForm("income", 100)), registrationGroupCommitter.submit(newForm("expense", 200)));
+
+        results.forEach(result -> assertNotNull(result.join().getId(), "コミットされた登録に応答が返ることの確認"));
+        verify(accountBookService, times(1)).registerAll(any());
+        verify(accountBookService, never()).registerInfo(any());
+        assertEquals(5, accountRepository.count(), "登録が重複してコミットされないことの確認");
+    }
+
+    private static AccountBookForm newForm(String priceType, long price) {
+
+        var accountBookForm = new AccountBookForm();
+        accountBookForm.setPriceType(priceType);
+        accountBookForm.setItemDate(Date.valueOf("2022-03-01"));
+        accountBookForm.setItem("testItem");
+        accountBookForm.setPrice(price);
+        accountBookForm.setNote("testNote");
+
+        return accountBookForm;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.okozukai.support;
+
+import com.example.okozukai.datasource.LocalReplicaSynchronizer;
+import com.example.okozukai.search.AccountSearchIndex;
+import com.example.okozukai.service.AccountArchiveService;
+import com.example.okozukai.service.LedgerBalanceIndex;
+import com.example.okozukai.service.LedgerJournalService;
+import com.example.okozukai.service.LedgerRollupService;
+import com.example.okozukai.service.LedgerTotalService;
+import org.hibernate.SessionFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.jdbc.SqlScriptsTestExecutionListener;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+import javax.persistence.EntityManagerFactory;
+
+public class LedgerStateTestExecutionListener extends AbstractTestExecutionListener {
+
+    @Override
+    public int getOrder() {
+        return new SqlScriptsTestExecutionListener().getOrder() + 1;
+    }
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+
+        var applicationContext = testContext.getApplicationContext();
+        applicationContext.getBeanProvider(AccountArchiveService.class).ifAvailable(AccountArchiveService::refresh);
+        applicationContext.getBeanProvider(LedgerJournalService.class).ifAvailable(LedgerJournalService::reset);
+        applicationContext.getBeanProvider(LedgerTotalService.class).ifAvailable(LedgerTotalService::reconcile);
+        applicationContext.getBeanProvider(LedgerRollupService.class).ifAvailable(LedgerRollupService::rebuild);
+        applicationContext.getBeanProvider(LedgerBalanceIndex.class).ifAvailable(LedgerBalanceIndex::rebuild);
+        applicationContext.getBeanProvider(AccountSearchIndex.class).ifAvailable(AccountSearchIndex::rebuild);
+        applicationContext.getBeanProvider(LocalReplicaSynchronizer.class).ifAvailable(LocalReplicaSynchronizer::resync);
+        applicationContext.getBeanProvider(CacheManager.class).ifAvailable(cacheManager ->
+                cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear()));
+        applicationContext.getBeanProvider(EntityManagerFactory.class).ifAvailable(entityManagerFactory ->
+                entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions());
+    }
+}
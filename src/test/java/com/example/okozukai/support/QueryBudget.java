@@ -0,0 +1,43 @@
+package com.example.okozukai.support;
+
+import com.example.okozukai.metrics.RequestQueryMetricsInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class QueryBudget {
+
+    private final long maxStatements;
+
+    private final long maxEntityLoads;
+
+    private QueryBudget(long maxStatements, long maxEntityLoads) {
+        this.maxStatements = maxStatements;
+        this.maxEntityLoads = maxEntityLoads;
+    }
+
+    public static QueryBudget atMost(long statements, long entityLoads) {
+        return new QueryBudget(statements, entityLoads);
+    }
+
+    public ResultActions perform(MockMvc mockMvc, RequestBuilder requestBuilder) throws Exception {
+
+        var resultActions = mockMvc.perform(requestBuilder);
+        var mvcResult = resultActions.andReturn();
+        if (mvcResult.getRequest().isAsyncStarted()) {
+            mvcResult.getAsyncResult();
+        }
+
+        var request = mvcResult.getRequest();
+        var used = RequestQueryMetricsInterceptor.getQueryCount(request);
+        var endpoint = request.getMethod() + " " + request.getRequestURI();
+        assertTrue(used.statements() <= maxStatements,
+                () -> endpoint + " のSQL発行数が上限 " + maxStatements + " 以内であることの確認 (実際: " + used.statements() + ")");
+        assertTrue(used.entityLoads() <= maxEntityLoads,
+                () -> endpoint + " のエンティティ読み込み数が上限 " + maxEntityLoads + " 以内であることの確認 (実際: " + used.entityLoads() + ")");
+
+        return resultActions;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.okozukai.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerMathTest {
+
+    @Test
+    @DisplayName("合計が long の範囲を超える時、桁あふれせずに例外が発生する")
+    void testSumThrowsOnOverflow() {
+
+        assertThrows(ArithmeticException.class, () -> LedgerMath.sum(List.of(Long.MAX_VALUE, 1L), Long::longValue), "逐次集計で桁あふれが検出されることの確認");
+
+        var large = Collections.nCopies(LedgerMath.PARALLEL_THRESHOLD, Long.MAX_VALUE / LedgerMath.PARALLEL_THRESHOLD + 1);
+        assertThrows(ArithmeticException.class, () -> LedgerMath.sum(large, Long::longValue), "並列集計で桁あふれが検出されることの確認");
+        assertThrows(ArithmeticException.class, () -> LedgerMath.net(Long.MIN_VALUE, 1), "差額の計算で桁あふれが検出されることの確認");
+    }
+
+    @Test
+    @DisplayName("件数が並列化のしきい値を超える時、並列集計の結果が逐次集計と一致する")
+    void testParallelAggregationMatchesSequential() {
+
+        var size = LedgerMath.PARALLEL_THRESHOLD * 4;
+        var amounts = LongStream.range(0, size).map(i -> i % 7 == 0 ? -i * 1_000_000L : i * 3_000_000L).boxed().toList();
+
+        var expected = 0L;
+        var expectedTotals = new long[size];
+        for (var i = 0; i < size; i++) {
+            expected += amounts.get(i);
+            expectedTotals[i] = 100 + expected;
+        }
+
+        assertEquals(expected, LedgerMath.sum(amounts, Long::longValue), "並列集計の合計が逐次集計と一致することの確認");
+        assertArrayEquals(expectedTotals, LedgerMath.runningTotals(100, size, amounts::get), "並列の累計が逐次の累計と一致することの確認");
+        assertEquals(expected, LedgerMath.sumBy(amounts, amount -> amount % 2, Long::longValue).values().stream().mapToLong(Long::longValue).sum(),
+                "並列のグループ別集計の合計が逐次集計と一致することの確認");
+    }
+}
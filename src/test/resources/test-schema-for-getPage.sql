@@ -1,6 +1,7 @@
 DROP TABLE ACCOUNT;
+TRUNCATE TABLE ACCOUNT_ARCHIVE;
 CREATE TABLE ACCOUNT (id bigint, item_date DATE,  item VARCHAR(255),
-income INTEGER NOT NULL,expense INTEGER NOT NULL,  note VARCHAR(255),PRIMARY KEY (id));
+income BIGINT NOT NULL,expense BIGINT NOT NULL,  note VARCHAR(255), version BIGINT DEFAULT 0 NOT NULL,PRIMARY KEY (id));
 
 INSERT INTO ACCOUNT(id, item_date, item, income, expense, note)
 VALUES(1,'2022-01-20','T-Shirts',1000,0,'Uniqlo T-Shirt'),
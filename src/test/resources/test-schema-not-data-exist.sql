@@ -1,2 +1,3 @@
 DROP TABLE ACCOUNT;
-CREATE TABLE ACCOUNT (id bigint generated BY DEFAULT AS IDENTITY, item_date DATE,  item VARCHAR(255), income INTEGER NOT NULL,expense INTEGER NOT NULL,  note VARCHAR(255),PRIMARY KEY (id));
\ No newline at end of file
+TRUNCATE TABLE ACCOUNT_ARCHIVE;
+CREATE TABLE ACCOUNT (id bigint generated BY DEFAULT AS IDENTITY, item_date DATE,  item VARCHAR(255), income BIGINT NOT NULL,expense BIGINT NOT NULL,  note VARCHAR(255), version BIGINT DEFAULT 0 NOT NULL,PRIMARY KEY (id));
\ No newline at end of file